@@ -0,0 +1,190 @@
+package com.example.Backend.config;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+//reports queries that the server answers with a collection scan. the driver hands every command to this
+//listener; the first time a query shape (collection, command and the field names of filter and sort, not
+//their values) is seen, its plan is fetched with explain on a background thread and a COLLSCAN in the
+//winning plan is logged and counted as mongo.collscan. reads without any filter or sort are expected to
+//scan and are ignored
+@Component
+public class CollscanDetector implements CommandListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CollscanDetector.class);
+
+    private static final Set<String> EXPLAINABLE = Set.of("find", "aggregate", "count", "distinct");
+
+    //fields the driver adds to a command that explain does not accept
+    private static final Set<String> SESSION_FIELDS = Set.of("lsid", "txnNumber", "autocommit", "startTransaction",
+            "readConcern", "apiVersion", "apiStrict", "apiDeprecationErrors");
+
+    private static final JsonWriterSettings EXACT = JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED).build();
+
+    private final ObjectProvider<MongoTemplate> mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int maxShapes;
+    private final Set<String> seenShapes = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor explainer;
+
+    public CollscanDetector(ObjectProvider<MongoTemplate> mongoTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${mongo.collscan-check.enabled:true}") boolean enabled,
+                            @Value("${mongo.collscan-check.max-shapes:5000}") int maxShapes) {
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxShapes = maxShapes;
+        //explains are best effort: one worker, a short queue, and anything beyond that is dropped
+        this.explainer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(100),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "collscan-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        String commandName = event.getCommandName();
+        if (!enabled || !EXPLAINABLE.contains(commandName)) {
+            return;
+        }
+        BsonDocument command = event.getCommand();
+        BsonValue target = command.get(commandName);
+        if (target == null || !target.isString()) {
+            return;
+        }
+        String collection = target.asString().getValue();
+        BsonDocument filter = filterOf(commandName, command);
+        BsonDocument sort = sortOf(commandName, command);
+        if (filter.isEmpty() && sort.isEmpty()) {
+            return;
+        }
+        String shape = commandName + " " + collection + " " + shapeOf(filter) + " " + shapeOf(sort);
+        if (seenShapes.size() >= maxShapes || !seenShapes.add(shape)) {
+            return;
+        }
+        //the event's document is only valid during this callback, so the explain works on a copy
+        BsonDocument copy = BsonDocument.parse(command.toJson(EXACT));
+        String database = event.getDatabaseName();
+        explainer.execute(() -> explain(database, collection, commandName, shape, copy));
+    }
+
+    private void explain(String database, String collection, String commandName, String shape, BsonDocument command) {
+        try {
+            BsonDocument explained = new BsonDocument();
+            for (Map.Entry<String, BsonValue> field : command.entrySet()) {
+                if (!field.getKey().startsWith("$") && !SESSION_FIELDS.contains(field.getKey())) {
+                    explained.put(field.getKey(), field.getValue());
+                }
+            }
+            BsonDocument explain = new BsonDocument("explain", explained)
+                    .append("verbosity", new BsonString("queryPlanner"));
+            Document plan = mongoTemplate.getObject().getMongoDatabaseFactory().getMongoDatabase(database)
+                    .runCommand(explain);
+            if (hasCollscan(plan, false)) {
+                meterRegistry.counter("mongo.collscan", "collection", collection, "command", commandName).increment();
+                log.warn("Collection scan on {}: {}", collection, shape);
+            }
+        } catch (RuntimeException e) {
+            log.debug("Explain of {} failed: {}", shape, e.getMessage());
+        }
+    }
+
+    //only the winning plan counts, rejected candidates may well scan
+    private static boolean hasCollscan(Object node, boolean inWinningPlan) {
+        if (node instanceof Map<?, ?> map) {
+            if (inWinningPlan && "COLLSCAN".equals(map.get("stage"))) {
+                return true;
+            }
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if ("rejectedPlans".equals(entry.getKey())) {
+                    continue;
+                }
+                if (hasCollscan(entry.getValue(), inWinningPlan || "winningPlan".equals(entry.getKey()))) {
+                    return true;
+                }
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object element : list) {
+                if (hasCollscan(element, inWinningPlan)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static BsonDocument filterOf(String commandName, BsonDocument command) {
+        switch (commandName) {
+            case "find":
+                return command.getDocument("filter", new BsonDocument());
+            case "aggregate":
+                return firstStage(command, "$match");
+            default:
+                return command.getDocument("query", new BsonDocument());
+        }
+    }
+
+    private static BsonDocument sortOf(String commandName, BsonDocument command) {
+        if ("find".equals(commandName)) {
+            return command.getDocument("sort", new BsonDocument());
+        }
+        if ("aggregate".equals(commandName)) {
+            return firstStage(command, "$sort");
+        }
+        return new BsonDocument();
+    }
+
+    private static BsonDocument firstStage(BsonDocument command, String stageName) {
+        BsonArray pipeline = command.getArray("pipeline", new BsonArray());
+        for (BsonValue stage : pipeline) {
+            if (stage.isDocument() && stage.asDocument().containsKey(stageName)
+                    && stage.asDocument().get(stageName).isDocument()) {
+                return stage.asDocument().getDocument(stageName);
+            }
+        }
+        return new BsonDocument();
+    }
+
+    //field names and operators only, so queries that differ in their values share a shape
+    private static String shapeOf(BsonValue value) {
+        if (value.isDocument()) {
+            StringJoiner joiner = new StringJoiner(",", "{", "}");
+            for (Map.Entry<String, BsonValue> field : value.asDocument().entrySet()) {
+                joiner.add(field.getKey() + ":" + shapeOf(field.getValue()));
+            }
+            return joiner.toString();
+        }
+        if (value.isArray() && !value.asArray().isEmpty() && value.asArray().get(0).isDocument()) {
+            StringJoiner joiner = new StringJoiner(",", "[", "]");
+            for (BsonValue element : value.asArray()) {
+                joiner.add(shapeOf(element));
+            }
+            return joiner.toString();
+        }
+        return "?";
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.Backend.config;
+
+import com.example.Backend.model.Comment;
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.model.Post;
+import com.example.Backend.model.User;
+import com.example.Backend.service.CommentService;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+//one-off server-side fixups for documents written before a derived field existed, each is a no-op once applied.
+//they run once all beans exist but before the web server starts, so no request sees a document without them
+@Component
+public class DataBackfill implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(DataBackfill.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final CommentService commentService;
+
+    public DataBackfill(MongoTemplate mongoTemplate, CommentService commentService) {
+        this.mongoTemplate = mongoTemplate;
+        this.commentService = commentService;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        backfill();
+    }
+
+    public void backfill() {
+        for (Class<?> type : List.of(Post.class, LearningProgress.class, User.class)) {
+            backfillVersion(type);
+        }
+        for (Class<?> type : List.of(Post.class, LearningProgress.class)) {
+            backfillLikeCount(type);
+        }
+        long posts = commentService.migrateEmbeddedComments(Post.class, Comment.PARENT_POST);
+        long entries = commentService.migrateEmbeddedComments(LearningProgress.class, Comment.PARENT_LEARNING_PROGRESS);
+        if (posts + entries > 0) {
+            log.info("Moved embedded comments of {} posts and {} learning progress entries to the comment store",
+                    posts, entries);
+        }
+    }
+
+    //a @Version property that is null marks the entity as new, so save() on a document written before
+    //versioning would try to insert it again
+    private void backfillVersion(Class<?> type) {
+        Query missing = new Query(Criteria.where("version").exists(false));
+        long modified = mongoTemplate.updateMulti(missing, new Update().set("version", 0L), type).getModifiedCount();
+        if (modified > 0) {
+            log.info("Backfilled version on {} {} documents", modified, type.getSimpleName());
+        }
+    }
+
+    private void backfillLikeCount(Class<?> type) {
+        Query missing = new Query(Criteria.where("likeCount").exists(false));
+        AggregationUpdate update = AggregationUpdate.from(List.of(context -> new Document("$set",
+                new Document("likeCount", new Document("$size", new Document("$ifNull", List.of("$likes", List.of())))))));
+        long modified = mongoTemplate.updateMulti(missing, update, type).getModifiedCount();
+        if (modified > 0) {
+            log.info("Backfilled likeCount on {} {} documents", modified, type.getSimpleName());
+        }
+    }
+}
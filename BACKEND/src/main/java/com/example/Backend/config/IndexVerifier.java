@@ -0,0 +1,134 @@
+package com.example.Backend.config;
+
+import com.example.Backend.model.*;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver.IndexDefinitionHolder;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+//indexes are declared on the models with @Indexed / @CompoundIndex. automatic index creation is off, so at
+//startup the declared indexes are compared with what each collection actually has, by key pattern and not
+//by name, and the missing ones are built on a background thread so startup is not held up by large builds.
+//the thread starts once all beans exist, before the web server, so builds are under way before the first
+//request. an existing index on the same keys whose unique, sparse or partial filter options differ is
+//reported but left alone, fixing it means dropping it first
+@Component
+public class IndexVerifier implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexVerifier.class);
+
+    private static final JsonWriterSettings RELAXED = JsonWriterSettings.builder().outputMode(JsonMode.RELAXED).build();
+
+    private static final List<Class<?>> INDEXED_TYPES = List.of(Post.class, LearningProgress.class, Comment.class,
+            TimelineEntry.class, Notification.class, User.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean createMissing;
+
+    public IndexVerifier(MongoTemplate mongoTemplate,
+                         @Value("${mongo.indexes.create-missing:true}") boolean createMissing) {
+        this.mongoTemplate = mongoTemplate;
+        this.createMissing = createMissing;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Thread builder = new Thread(this::verify, "index-verifier");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    public void verify() {
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        for (Class<?> type : INDEXED_TYPES) {
+            MongoPersistentEntity<?> entity =
+                    mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(type);
+            Map<List<String>, Document> existing = existingIndexes(entity.getCollection());
+            for (IndexDefinitionHolder declared : resolver.resolveIndexForEntity(entity)) {
+                String name = declared.getIndexOptions().getString("name");
+                Document current = existing.get(keyPattern(declared.getIndexKeys()));
+                if (current != null) {
+                    List<String> differences = optionDifferences(declared.getIndexOptions(), current);
+                    if (!differences.isEmpty()) {
+                        log.warn("Index {} {} on {} exists as {} with different options: {}", name,
+                                declared.getIndexKeys(), entity.getCollection(), current.getString("name"),
+                                String.join(", ", differences));
+                    }
+                    continue;
+                }
+                if (!createMissing) {
+                    log.warn("Index {} {} declared on {} is missing", name, declared.getIndexKeys(),
+                            entity.getCollection());
+                    continue;
+                }
+                try {
+                    long started = System.currentTimeMillis();
+                    mongoTemplate.indexOps(entity.getCollection()).ensureIndex(declared);
+                    log.info("Built missing index {} {} on {} in {} ms", name, declared.getIndexKeys(),
+                            entity.getCollection(), System.currentTimeMillis() - started);
+                } catch (RuntimeException e) {
+                    //e.g. a unique index over data that already has duplicates
+                    log.error("Could not build index {} on {}: {}", name, entity.getCollection(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    //existing indexes by key pattern
+    private Map<List<String>, Document> existingIndexes(String collection) {
+        Map<List<String>, Document> indexes = new HashMap<>();
+        if (!mongoTemplate.collectionExists(collection)) {
+            return indexes;
+        }
+        for (Document index : mongoTemplate.getCollection(collection).listIndexes()) {
+            indexes.put(keyPattern(index.get("key", Document.class)), index);
+        }
+        return indexes;
+    }
+
+    //options that change what an index accepts or covers. absent flags mean false, filters are compared
+    //as relaxed json so an int and a long of the same value are equal
+    private static List<String> optionDifferences(Document declared, Document existing) {
+        List<String> differences = new ArrayList<>();
+        for (String flag : List.of("unique", "sparse")) {
+            boolean wanted = Boolean.TRUE.equals(declared.get(flag));
+            boolean actual = Boolean.TRUE.equals(existing.get(flag));
+            if (wanted != actual) {
+                differences.add(flag + " declared " + wanted + " but is " + actual);
+            }
+        }
+        String wantedFilter = filterJson(declared.get("partialFilterExpression", Document.class));
+        String actualFilter = filterJson(existing.get("partialFilterExpression", Document.class));
+        if (!Objects.equals(wantedFilter, actualFilter)) {
+            differences.add("partialFilterExpression declared " + wantedFilter + " but is " + actualFilter);
+        }
+        return differences;
+    }
+
+    private static String filterJson(Document filter) {
+        return filter == null ? null : filter.toJson(RELAXED);
+    }
+
+    //field order matters for an index and numbers may come back as int, long or double
+    private static List<String> keyPattern(Document keys) {
+        List<String> pattern = new ArrayList<>(keys.size());
+        for (Map.Entry<String, Object> key : keys.entrySet()) {
+            Object direction = key.getValue();
+            String normalized = direction instanceof Number number ? Integer.toString(number.intValue())
+                    : String.valueOf(direction);
+            pattern.add(key.getKey() + ":" + normalized);
+        }
+        return pattern;
+    }
+}
@@ -17,6 +17,11 @@ import java.util.Collections;
 import java.util.Date;
 
 public class JWTAuthenticationFilter extends OncePerRequestFilter {
+    //EventSource cannot send an Authorization header, so the notification stream takes a short-lived ticket
+    //in the query string instead; tickets carry this scope and are not accepted anywhere else
+    public static final String STREAM_SCOPE = "notifications-stream";
+    public static final String STREAM_PATH = "/api/notifications/stream";
+
     private final Key jwtSecret;
 
     public JWTAuthenticationFilter(Key jwtSecret) {
@@ -28,14 +33,17 @@ public class JWTAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
 
         String header = request.getHeader("Authorization");
+        boolean hasBearer = header != null && header.startsWith("Bearer ");
+        String ticket = hasBearer || !STREAM_PATH.equals(request.getRequestURI())
+                ? null : request.getParameter("ticket");
 
         //skip token validation for certain paths
-        if (header == null || !header.startsWith("Bearer ") || isOpenEndpoint(request.getRequestURI())) {
+        if ((!hasBearer && ticket == null) || isOpenEndpoint(request.getRequestURI())) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        String token = header.replace("Bearer ", "");
+        String token = hasBearer ? header.replace("Bearer ", "") : ticket;
 
         try {
             Claims claims = Jwts.parser()
@@ -46,6 +54,11 @@ public class JWTAuthenticationFilter extends OncePerRequestFilter {
 
             String userId = claims.getSubject();
 
+            //a ticket only opens the stream and a regular token is never taken from the query string
+            if (STREAM_SCOPE.equals(claims.get("scope", String.class)) != (ticket != null)) {
+                throw new IllegalArgumentException("Token used outside its scope");
+            }
+
             //check if token is expired
             if (claims.getExpiration().before(new Date())) {
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -0,0 +1,15 @@
+package com.example.Backend.config;
+
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MongoDiagnosticsConfig {
+
+    //lets the collection scan detector see every command the application sends
+    @Bean
+    public MongoClientSettingsBuilderCustomizer collscanListener(CollscanDetector collscanDetector) {
+        return settings -> settings.addCommandListener(collscanDetector);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.Backend.controller;
+
+import com.example.Backend.dto.ActivityItem;
+import com.example.Backend.dto.FeedPage;
+import com.example.Backend.service.ActivityService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/activity")
+public class ActivityController {
+
+    @Autowired
+    private ActivityService activityService;
+
+    //posts and learning progress entries of everyone, newest first
+    @GetMapping
+    public ResponseEntity<FeedPage<ActivityItem>> getActivity(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        FeedPage<ActivityItem> page = activityService.getActivity(cursor, size);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.Backend.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+//services reject malformed input such as a feed cursor that does not decode with IllegalArgumentException,
+//which every controller answers with 400 and the message as body
+@RestControllerAdvice
+public class BadRequestHandler {
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.Backend.controller;
+
+import com.example.Backend.service.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    @Autowired
+    private ExportService exportService;
+
+    //every post as one json object per line
+    @GetMapping("/posts")
+    public ResponseEntity<StreamingResponseBody> exportPosts(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestParam(required = false) Boolean gzip) {
+        boolean compress = wantsGzip(acceptEncoding, gzip);
+        return streaming("posts", compress, out -> exportService.exportPosts(out, compress));
+    }
+
+    //every learning progress entry as one json object per line
+    @GetMapping("/learning-progress")
+    public ResponseEntity<StreamingResponseBody> exportLearningProgress(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestParam(required = false) Boolean gzip) {
+        boolean compress = wantsGzip(acceptEncoding, gzip);
+        return streaming("learning-progress", compress, out -> exportService.exportLearningProgress(out, compress));
+    }
+
+    //an explicit gzip parameter wins over what the client advertises
+    private boolean wantsGzip(String acceptEncoding, Boolean gzip) {
+        if (gzip != null) {
+            return gzip;
+        }
+        return acceptsGzip(acceptEncoding);
+    }
+
+    //gzip counts as accepted when it is listed with a q-value above zero, or when it is not listed and a "*"
+    //with a q-value above zero is. "gzip;q=0" explicitly refuses it
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase();
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim().toLowerCase();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = gzipQuality == null ? quality : Math.max(gzipQuality, quality);
+            } else if (coding.equals("*")) {
+                wildcardQuality = quality;
+            }
+        }
+        if (gzipQuality != null) {
+            return gzipQuality > 0;
+        }
+        return wildcardQuality != null && wildcardQuality > 0;
+    }
+
+    private ResponseEntity<StreamingResponseBody> streaming(String name, boolean gzip, StreamingResponseBody body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(NDJSON);
+        headers.set(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + name + ".ndjson\"");
+        headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.Backend.controller;
+
+import com.example.Backend.dto.ImportResult;
+import com.example.Backend.service.ImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/import")
+public class ImportController {
+
+    @Autowired
+    private ImportService importService;
+
+    //body is newline-delimited json, one post per line; the file is read as it arrives, not buffered
+    @PostMapping(value = "/posts", consumes = {"application/x-ndjson", "text/plain"})
+    public ResponseEntity<ImportResult> importPosts(HttpServletRequest request) throws IOException {
+        ImportResult result = importService.importPosts(request.getInputStream());
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    //body is newline-delimited json, one learning progress entry per line
+    @PostMapping(value = "/learning-progress", consumes = {"application/x-ndjson", "text/plain"})
+    public ResponseEntity<ImportResult> importLearningProgress(HttpServletRequest request) throws IOException {
+        ImportResult result = importService.importLearningProgress(request.getInputStream());
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+}
@@ -1,16 +1,21 @@
 package com.example.Backend.controller;
 
+import com.example.Backend.dto.FeedPage;
+import com.example.Backend.dto.LearningProgressSummaryDTO;
 import com.example.Backend.model.Comment;
 import com.example.Backend.model.Like;
 import com.example.Backend.model.LearningProgress;
 import com.example.Backend.service.LearningProgressService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/learning-progress")
@@ -36,6 +41,32 @@ public class LearningProgressController {
         return new ResponseEntity<>(entries, HttpStatus.OK);
     }
 
+    //get one page of entries as summaries, likedByMe is evaluated for viewerId
+    @GetMapping("/summary")
+    public ResponseEntity<FeedPage<LearningProgressSummaryDTO>> getLearningProgressSummaries(
+            @RequestParam(required = false) String viewerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        FeedPage<LearningProgressSummaryDTO> page =
+                learningProgressService.getLearningProgressSummaries(viewerId, cursor, size);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    //get one page of entries filtered by any of userId, templateType, status and a createdAt range [from, to)
+    @GetMapping("/page")
+    public ResponseEntity<FeedPage<LearningProgress>> findLearningProgress(
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) String templateType,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        FeedPage<LearningProgress> page = learningProgressService.findLearningProgress(userId, templateType, status,
+                from, to, cursor, size);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
     //get a learning progress entry by ID
     @GetMapping("/{id}")
     public ResponseEntity<LearningProgress> getLearningProgressById(@PathVariable String id) {
@@ -75,24 +106,40 @@ public class LearningProgressController {
         return new ResponseEntity<>(updated, HttpStatus.CREATED);
     }
 
+    //get one page of an entry's comments, newest first
+    @GetMapping("/{entryId}/comments")
+    public ResponseEntity<FeedPage<Comment>> getComments(
+            @PathVariable String entryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        FeedPage<Comment> page = learningProgressService.getComments(entryId, cursor, size);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
     //update a comment
     @PutMapping("/{entryId}/comments/{commentId}")
-    public ResponseEntity<LearningProgress> updateComment(
+    public ResponseEntity<Comment> updateComment(
             @PathVariable String entryId,
             @PathVariable String commentId,
             @RequestBody Comment comment) {
-        LearningProgress updated = learningProgressService.updateComment(entryId, commentId, comment);
+        Comment updated = learningProgressService.updateComment(entryId, commentId, comment);
+        if (updated == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
         return new ResponseEntity<>(updated, HttpStatus.OK);
     }
 
     //delete a comment
     @DeleteMapping("/{entryId}/comments/{commentId}")
-    public ResponseEntity<LearningProgress> deleteComment(
+    public ResponseEntity<Comment> deleteComment(
             @PathVariable String entryId,
             @PathVariable String commentId,
             @RequestParam String userId) {
-        LearningProgress updated = learningProgressService.deleteComment(entryId, commentId, userId);
-        return new ResponseEntity<>(updated, HttpStatus.OK);
+        Comment removed = learningProgressService.deleteComment(entryId, commentId, userId);
+        if (removed == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(removed, HttpStatus.OK);
     }
 
     //ad a like to a learning progress entry
@@ -101,15 +148,30 @@ public class LearningProgressController {
             @PathVariable String entryId,
             @RequestBody Like like) {
         LearningProgress updated = learningProgressService.addLike(entryId, like);
+        if (updated == null) {
+            return new ResponseEntity<>(HttpStatus.ACCEPTED);
+        }
         return new ResponseEntity<>(updated, HttpStatus.CREATED);
     }
 
+    //check which of the given entries a user has liked
+    @GetMapping("/likes/check")
+    public ResponseEntity<Map<String, Boolean>> getLikedByUser(
+            @RequestParam String userId,
+            @RequestParam List<String> ids) {
+        Map<String, Boolean> liked = learningProgressService.getLikedByUser(userId, ids);
+        return new ResponseEntity<>(liked, HttpStatus.OK);
+    }
+
     //rremove a like from a learning progress entry
     @DeleteMapping("/{entryId}/likes/{userId}")
     public ResponseEntity<LearningProgress> removeLike(
             @PathVariable String entryId,
             @PathVariable String userId) {
         LearningProgress updated = learningProgressService.removeLike(entryId, userId);
+        if (updated == null) {
+            return new ResponseEntity<>(HttpStatus.ACCEPTED);
+        }
         return new ResponseEntity<>(updated, HttpStatus.OK);
     }
 }
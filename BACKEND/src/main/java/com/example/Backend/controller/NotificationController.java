@@ -1,13 +1,24 @@
 package com.example.Backend.controller;
 
+import com.example.Backend.config.JWTAuthenticationFilter;
 import com.example.Backend.model.Notification;
 import com.example.Backend.service.NotificationService;
+import com.example.Backend.service.NotificationStream;
+import io.jsonwebtoken.Jwts;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.security.Key;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 @RestController
 @RequestMapping("/api/notifications")
@@ -17,6 +28,44 @@ public class NotificationController {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private NotificationStream notificationStream;
+
+    @Autowired
+    private Key jwtSecretKey;
+
+    @Value("${notifications.stream.ticket-seconds:60}")
+    private long ticketSeconds;
+
+    //short-lived ticket for opening the stream, since EventSource cannot send the Authorization header;
+    //clients fetch a fresh one before every (re)connect and pass it as ?ticket=
+    @PostMapping("/stream/ticket")
+    public ResponseEntity<?> streamTicket(Authentication authentication) {
+        if (authentication == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        Date now = new Date();
+        String ticket = Jwts.builder()
+                .setSubject(authentication.getName())
+                .claim("scope", JWTAuthenticationFilter.STREAM_SCOPE)
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + ticketSeconds * 1000))
+                .signWith(jwtSecretKey)
+                .compact();
+        return ResponseEntity.ok(Map.of("ticket", ticket));
+    }
+
+    //live notifications as server-sent events for the authenticated user; a reconnecting EventSource sends
+    //Last-Event-ID and gets what it missed first
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamNotifications(Authentication authentication,
+                                          @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        if (authentication == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(notificationStream.subscribe(authentication.getName(), lastEventId));
+    }
+
     @GetMapping
     public ResponseEntity<?> getNotifications(@RequestParam String userId) {
         if (userId == null || userId.isEmpty()) {
@@ -45,11 +94,27 @@ public class NotificationController {
         }
     }
 
+    //badge count, served from the unread counter cache
+    @GetMapping("/unread/count")
+    public ResponseEntity<?> getUnreadCount(@RequestParam String userId) {
+        if (userId == null || userId.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("userId is required");
+        }
+        try {
+            return ResponseEntity.ok(notificationService.getUnreadCount(userId));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error fetching unread count: " + e.getMessage());
+        }
+    }
+
     @PutMapping("/{id}/read")
     public ResponseEntity<?> markAsRead(@PathVariable String id) {
         try {
             notificationService.markNotificationAsRead(id);
             return ResponseEntity.noContent().build();
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error marking notification as read: " + e.getMessage());
@@ -1,6 +1,7 @@
 package com.example.Backend.controller;
 
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -16,6 +17,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.Backend.dto.FeedPage;
+import com.example.Backend.dto.PostSummaryDTO;
 import com.example.Backend.model.Comment;
 import com.example.Backend.model.Like;
 import com.example.Backend.model.Post;
@@ -44,6 +47,25 @@ public class PostController {
         return new ResponseEntity<>(posts, HttpStatus.OK);
     }
 
+    // Get one page of the feed, pass nextCursor back to get the following page
+    @GetMapping("/feed")
+    public ResponseEntity<FeedPage<Post>> getFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        FeedPage<Post> page = postService.getFeed(cursor, size);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    // Get one page of the feed as summaries, likedByMe is evaluated for viewerId
+    @GetMapping("/feed/summary")
+    public ResponseEntity<FeedPage<PostSummaryDTO>> getFeedSummary(
+            @RequestParam(required = false) String viewerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        FeedPage<PostSummaryDTO> page = postService.getFeedSummary(viewerId, cursor, size);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
     // Get a post by ID
     @GetMapping("/{id}")
     public ResponseEntity<Post> getPostById(@PathVariable String id) {
@@ -79,37 +101,68 @@ public class PostController {
         return new ResponseEntity<>(updatedPost, HttpStatus.CREATED);
     }
 
+    // Get one page of a post's comments, newest first
+    @GetMapping("/{postId}/comments")
+    public ResponseEntity<FeedPage<Comment>> getComments(
+            @PathVariable String postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        FeedPage<Comment> page = postService.getComments(postId, cursor, size);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
     // Update a comment
     @PutMapping("/{postId}/comments/{commentId}")
-    public ResponseEntity<Post> updateComment(
+    public ResponseEntity<Comment> updateComment(
             @PathVariable String postId,
             @PathVariable String commentId,
             @RequestBody Comment comment) {
-        Post updatedPost = postService.updateComment(postId, commentId, comment);
-        return new ResponseEntity<>(updatedPost, HttpStatus.OK);
+        Comment updated = postService.updateComment(postId, commentId, comment);
+        if (updated == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(updated, HttpStatus.OK);
     }
 
     // Delete a comment
     @DeleteMapping("/{postId}/comments/{commentId}")
-    public ResponseEntity<Post> deleteComment(
+    public ResponseEntity<Comment> deleteComment(
             @PathVariable String postId,
             @PathVariable String commentId,
             @RequestParam String userId) {
-        Post updatedPost = postService.deleteComment(postId, commentId, userId);
-        return new ResponseEntity<>(updatedPost, HttpStatus.OK);
+        Comment removed = postService.deleteComment(postId, commentId, userId);
+        if (removed == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(removed, HttpStatus.OK);
     }
 
     // Add a like to a post
     @PostMapping("/{postId}/likes")
     public ResponseEntity<Post> addLike(@PathVariable String postId, @RequestBody Like like) {
         Post updatedPost = postService.addLike(postId, like);
+        if (updatedPost == null) {
+            return new ResponseEntity<>(HttpStatus.ACCEPTED);
+        }
         return new ResponseEntity<>(updatedPost, HttpStatus.CREATED);
     }
 
+    // Check which of the given posts a user has liked
+    @GetMapping("/likes/check")
+    public ResponseEntity<Map<String, Boolean>> getLikedByUser(
+            @RequestParam String userId,
+            @RequestParam List<String> ids) {
+        Map<String, Boolean> liked = postService.getLikedByUser(userId, ids);
+        return new ResponseEntity<>(liked, HttpStatus.OK);
+    }
+
     // Remove a like from a post
     @DeleteMapping("/{postId}/likes/{userId}")
     public ResponseEntity<Post> removeLike(@PathVariable String postId, @PathVariable String userId) {
         Post updatedPost = postService.removeLike(postId, userId);
+        if (updatedPost == null) {
+            return new ResponseEntity<>(HttpStatus.ACCEPTED);
+        }
         return new ResponseEntity<>(updatedPost, HttpStatus.OK);
     }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.example.Backend.controller;
+
+import com.example.Backend.dto.SearchHit;
+import com.example.Backend.service.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    @Autowired
+    private SearchService searchService;
+
+    //full-text search over posts and learning progress, best match first. type narrows to POST or LEARNING_PROGRESS
+    @GetMapping
+    public ResponseEntity<List<SearchHit>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Integer limit) {
+        List<SearchHit> hits = searchService.search(q, type, limit);
+        return new ResponseEntity<>(hits, HttpStatus.OK);
+    }
+}
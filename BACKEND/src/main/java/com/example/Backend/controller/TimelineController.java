@@ -0,0 +1,27 @@
+package com.example.Backend.controller;
+
+import com.example.Backend.dto.ActivityItem;
+import com.example.Backend.dto.FeedPage;
+import com.example.Backend.service.TimelineService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/timeline")
+public class TimelineController {
+
+    @Autowired
+    private TimelineService timelineService;
+
+    //home timeline of a user: their own entries plus entries of everyone they follow
+    @GetMapping("/{userId}")
+    public ResponseEntity<FeedPage<ActivityItem>> getHomeTimeline(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        FeedPage<ActivityItem> page = timelineService.getHomeTimeline(userId, cursor, size);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+}
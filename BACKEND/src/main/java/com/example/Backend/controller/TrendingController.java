@@ -0,0 +1,27 @@
+package com.example.Backend.controller;
+
+import com.example.Backend.dto.ActivityItem;
+import com.example.Backend.service.TrendingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/trending")
+public class TrendingController {
+
+    @Autowired
+    private TrendingService trendingService;
+
+    //highest decayed engagement first, type narrows to POST or LEARNING_PROGRESS
+    @GetMapping
+    public ResponseEntity<List<ActivityItem>> getTrending(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String type) {
+        List<ActivityItem> items = trendingService.getTrending(limit, type);
+        return new ResponseEntity<>(items, HttpStatus.OK);
+    }
+}
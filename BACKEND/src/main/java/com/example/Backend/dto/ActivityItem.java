@@ -0,0 +1,77 @@
+package com.example.Backend.dto;
+
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.model.Post;
+import com.example.Backend.model.TimelineEntry;
+
+import java.util.Date;
+
+//one entry of a mixed feed, exactly one of post / learningProgress is set depending on type
+public class ActivityItem {
+    private String type;
+    private String id;
+    private Date createdAt;
+    private Post post;
+    private LearningProgress learningProgress;
+
+    public ActivityItem() {
+    }
+
+    public static ActivityItem ofPost(Post post) {
+        ActivityItem item = new ActivityItem();
+        item.setType(TimelineEntry.TYPE_POST);
+        item.setId(post.getId());
+        item.setCreatedAt(post.getCreatedAt());
+        item.setPost(post);
+        return item;
+    }
+
+    public static ActivityItem ofLearningProgress(LearningProgress progress) {
+        ActivityItem item = new ActivityItem();
+        item.setType(TimelineEntry.TYPE_LEARNING_PROGRESS);
+        item.setId(progress.getId());
+        item.setCreatedAt(progress.getCreatedAt());
+        item.setLearningProgress(progress);
+        return item;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Post getPost() {
+        return post;
+    }
+
+    public void setPost(Post post) {
+        this.post = post;
+    }
+
+    public LearningProgress getLearningProgress() {
+        return learningProgress;
+    }
+
+    public void setLearningProgress(LearningProgress learningProgress) {
+        this.learningProgress = learningProgress;
+    }
+}
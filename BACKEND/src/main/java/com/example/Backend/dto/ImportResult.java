@@ -0,0 +1,47 @@
+package com.example.Backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//outcome of one bulk import, errors point back to 1-based line numbers of the uploaded file
+public class ImportResult {
+    private long received;
+    private long imported;
+    private long failed;
+    private List<ImportLineError> errors = new ArrayList<>();
+
+    public ImportResult() {
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    public void setReceived(long received) {
+        this.received = received;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public List<ImportLineError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ImportLineError> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.Backend.dto;
+
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.model.Post;
+
+//one search result, exactly one of post / learningProgress is set depending on type
+public class SearchHit {
+    private String type;
+    private String id;
+    private double score;
+    private Post post;
+    private LearningProgress learningProgress;
+
+    public SearchHit() {
+    }
+
+    public SearchHit(String type, String id, double score) {
+        this.type = type;
+        this.id = id;
+        this.score = score;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public Post getPost() {
+        return post;
+    }
+
+    public void setPost(Post post) {
+        this.post = post;
+    }
+
+    public LearningProgress getLearningProgress() {
+        return learningProgress;
+    }
+
+    public void setLearningProgress(LearningProgress learningProgress) {
+        this.learningProgress = learningProgress;
+    }
+}
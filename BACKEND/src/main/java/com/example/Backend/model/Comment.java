@@ -2,13 +2,27 @@ package com.example.Backend.model;
 
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
 
+//comments live in their own collection keyed by parent, posts and learning progress entries only inline
+//the latest few as a preview
+@Document(collection = "comments")
+@CompoundIndex(name = "parent_createdAt_id", def = "{'parentId': 1, 'createdAt': -1, '_id': -1}")
 @AllArgsConstructor
 @NoArgsConstructor
 public class Comment {
+    public static final String PARENT_POST = "POST";
+    public static final String PARENT_LEARNING_PROGRESS = "LEARNING_PROGRESS";
+
+    @Id
     private String id;
+    private String parentId;
+    private String parentType;
+    private String parentOwnerId;
     private String userId;
     private String userName;
     private String content;
@@ -23,6 +37,30 @@ public class Comment {
         this.id = id;
     }
 
+    public String getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(String parentId) {
+        this.parentId = parentId;
+    }
+
+    public String getParentType() {
+        return parentType;
+    }
+
+    public void setParentType(String parentType) {
+        this.parentType = parentType;
+    }
+
+    public String getParentOwnerId() {
+        return parentOwnerId;
+    }
+
+    public void setParentOwnerId(String parentOwnerId) {
+        this.parentOwnerId = parentOwnerId;
+    }
+
     public String getUserId() {
         return userId;
     }
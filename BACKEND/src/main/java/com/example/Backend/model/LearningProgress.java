@@ -7,14 +7,28 @@ import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "learning_progress")
+@CompoundIndexes({
+        @CompoundIndex(name = "feed_createdAt_id", def = "{'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "user_createdAt_id", def = "{'userId': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "user_template_status_createdAt_id",
+                def = "{'userId': 1, 'templateType': 1, 'status': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "template_status_createdAt_id",
+                def = "{'templateType': 1, 'status': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "status_createdAt_id", def = "{'status': 1, 'createdAt': -1, '_id': -1}")
+})
 @AllArgsConstructor
 @NoArgsConstructor
-public class LearningProgress {
+public class LearningProgress implements Likeable {
     @Id
     private String id;
+    @Version
+    private Long version;
     private String userId;
     private String userName;
     private String title;
@@ -29,7 +43,9 @@ public class LearningProgress {
     private Date createdAt;
     private Date updatedAt;
     private List<Like> likes;
+    private int likeCount;
     private List<Comment> comments;
+    private int commentCount;
 
     // Getters and setters
     public String getId() {
@@ -40,6 +56,14 @@ public class LearningProgress {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getUserId() {
         return userId;
     }
@@ -152,6 +176,14 @@ public class LearningProgress {
         this.likes = likes;
     }
 
+    public int getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(int likeCount) {
+        this.likeCount = likeCount;
+    }
+
     public List<Comment> getComments() {
         return comments;
     }
@@ -159,4 +191,12 @@ public class LearningProgress {
     public void setComments(List<Comment> comments) {
         this.comments = comments;
     }
-}
\ No newline at end of file
+
+    public int getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(int commentCount) {
+        this.commentCount = commentCount;
+    }
+}
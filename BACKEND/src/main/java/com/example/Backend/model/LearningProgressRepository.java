@@ -17,4 +17,6 @@ public interface LearningProgressRepository extends MongoRepository<LearningProg
     List<LearningProgress> findAllByOrderByCreatedAtDesc();
 
     List<LearningProgress> findByUserIdOrderByCreatedAtDesc(String userId);
+
+    long countByUserId(String userId);
 }
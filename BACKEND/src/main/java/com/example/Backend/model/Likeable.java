@@ -0,0 +1,18 @@
+package com.example.Backend.model;
+
+import java.util.List;
+
+//a document that can be liked: posts and learning progress entries keep their likes embedded next to a
+//likeCount, and the owner is the one notified
+public interface Likeable {
+
+    String getUserId();
+
+    List<Like> getLikes();
+
+    void setLikes(List<Like> likes);
+
+    int getLikeCount();
+
+    void setLikeCount(int likeCount);
+}
@@ -1,21 +1,39 @@
 package com.example.Backend.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
+import java.util.List;
 
 @Document(collection = "notifications")
+@CompoundIndexes({
+        @CompoundIndex(name = "user_createdAt", def = "{'userId': 1, 'createdAt': -1}"),
+        @CompoundIndex(name = "user_read_createdAt", def = "{'userId': 1, 'read': 1, 'createdAt': -1}"),
+        @CompoundIndex(name = "user_groupKey", def = "{'userId': 1, 'groupKey': 1}", unique = true,
+                partialFilter = "{'groupKey': {'$exists': true}}")
+})
 public class Notification {
     @Id
     private String id;
     private String userId;
     private String type;
+    @Indexed
     private String postId;
     private String triggerUserId;
     private String message;
     private boolean read;
     private Date createdAt;
+    //set on coalesced notifications only: one document per recipient, post, type and time window,
+    //createdAt then moves to the latest like or comment. the coalescer also keeps the ids of the events it
+    //folded in (appliedIds) and the event that last made the group unread (unreadToken), those fields are
+    //left unmapped so they never reach the api
+    private String groupKey;
+    private int count;
+    private List<NotificationTrigger> recentTriggers;
 
     public Notification() {
     }
@@ -94,4 +112,28 @@ public class Notification {
     public void setCreatedAt(Date createdAt) {
         this.createdAt = createdAt;
     }
+
+    public String getGroupKey() {
+        return groupKey;
+    }
+
+    public void setGroupKey(String groupKey) {
+        this.groupKey = groupKey;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public List<NotificationTrigger> getRecentTriggers() {
+        return recentTriggers;
+    }
+
+    public void setRecentTriggers(List<NotificationTrigger> recentTriggers) {
+        this.recentTriggers = recentTriggers;
+    }
 }
\ No newline at end of file
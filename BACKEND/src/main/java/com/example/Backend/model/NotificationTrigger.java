@@ -0,0 +1,31 @@
+package com.example.Backend.model;
+
+//one of the most recent users behind a coalesced notification
+public class NotificationTrigger {
+    private String userId;
+    private String userName;
+
+    public NotificationTrigger() {
+    }
+
+    public NotificationTrigger(String userId, String userName) {
+        this.userId = userId;
+        this.userName = userName;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+}
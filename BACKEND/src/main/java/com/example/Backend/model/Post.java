@@ -6,22 +6,34 @@ import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "posts")
+@CompoundIndexes({
+        @CompoundIndex(name = "feed_createdAt_id", def = "{'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "user_createdAt_id", def = "{'userId': 1, 'createdAt': -1, '_id': -1}")
+})
 @AllArgsConstructor
 @NoArgsConstructor
-public class Post {
+public class Post implements Likeable {
     @Id
     private String id;
+    @Version
+    private Long version;
     private String userId;
     private String userName;
     private String description;
     private List<String> mediaUrls;
+    private List<String> thumbnailUrls;
     private Date createdAt;
     private Date updatedAt;
     private List<Like> likes;
+    private int likeCount;
     private List<Comment> comments;
+    private int commentCount;
 
     public String getId() {
         return id;
@@ -31,6 +43,14 @@ public class Post {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getUserId() {
         return userId;
     }
@@ -63,6 +83,14 @@ public class Post {
         this.mediaUrls = mediaUrls;
     }
 
+    public List<String> getThumbnailUrls() {
+        return thumbnailUrls;
+    }
+
+    public void setThumbnailUrls(List<String> thumbnailUrls) {
+        this.thumbnailUrls = thumbnailUrls;
+    }
+
     public Date getCreatedAt() {
         return createdAt;
     }
@@ -87,6 +115,14 @@ public class Post {
         this.likes = likes;
     }
 
+    public int getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(int likeCount) {
+        this.likeCount = likeCount;
+    }
+
     public List<Comment> getComments() {
         return comments;
     }
@@ -94,4 +130,12 @@ public class Post {
     public void setComments(List<Comment> comments) {
         this.comments = comments;
     }
+
+    public int getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(int commentCount) {
+        this.commentCount = commentCount;
+    }
 }
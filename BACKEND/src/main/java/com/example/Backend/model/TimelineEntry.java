@@ -0,0 +1,86 @@
+package com.example.Backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+//reference to a post or learning progress entry in a reader's home timeline inbox
+@Document(collection = "timeline_entries")
+@CompoundIndexes({
+        @CompoundIndex(name = "owner_createdAt_entry", def = "{'ownerId': 1, 'createdAt': -1, 'entryId': -1}"),
+        @CompoundIndex(name = "entry_type", def = "{'entryId': 1, 'entryType': 1}")
+})
+public class TimelineEntry {
+    public static final String TYPE_POST = "POST";
+    public static final String TYPE_LEARNING_PROGRESS = "LEARNING_PROGRESS";
+
+    @Id
+    private String id;
+    private String ownerId;
+    private String entryId;
+    private String entryType;
+    private String authorId;
+    private Date createdAt;
+
+    public TimelineEntry() {
+    }
+
+    public TimelineEntry(String ownerId, String entryId, String entryType, String authorId, Date createdAt) {
+        this.ownerId = ownerId;
+        this.entryId = entryId;
+        this.entryType = entryType;
+        this.authorId = authorId;
+        this.createdAt = createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(String ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public String getEntryId() {
+        return entryId;
+    }
+
+    public void setEntryId(String entryId) {
+        this.entryId = entryId;
+    }
+
+    public String getEntryType() {
+        return entryType;
+    }
+
+    public void setEntryType(String entryType) {
+        this.entryType = entryType;
+    }
+
+    public String getAuthorId() {
+        return authorId;
+    }
+
+    public void setAuthorId(String authorId) {
+        this.authorId = authorId;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.Backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+//persisted number of unread notifications of one user, the id is the user id
+@Document(collection = "unread_counters")
+public class UnreadCounter {
+    @Id
+    private String id;
+    private long unread;
+    //bumped by every change, so a cached or recounted value can tell whether it is still current
+    private long revision;
+    private Date reconciledAt;
+
+    public UnreadCounter() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public long getUnread() {
+        return unread;
+    }
+
+    public void setUnread(long unread) {
+        this.unread = unread;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+
+    public Date getReconciledAt() {
+        return reconciledAt;
+    }
+
+    public void setReconciledAt(Date reconciledAt) {
+        this.reconciledAt = reconciledAt;
+    }
+}
@@ -14,4 +14,6 @@ public interface PostRepository extends MongoRepository<Post, String> {
     List<Post> findAllByOrderByCreatedAtDesc();
 
     List<Post> findByUserIdOrderByCreatedAtDesc(String userId);
+
+    long countByUserId(String userId);
 }
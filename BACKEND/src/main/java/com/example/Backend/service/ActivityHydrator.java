@@ -0,0 +1,64 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.ActivityItem;
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.model.Post;
+import com.example.Backend.model.TimelineEntry;
+import com.example.Backend.repository.LearningProgressRepository;
+import com.example.Backend.repository.PostRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+//turns ordered (type, id) references into feed items
+@Component
+public class ActivityHydrator {
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private LearningProgressRepository learningProgressRepository;
+
+    //resolve entry references with one findAllById per collection, entries whose target is gone are skipped
+    public List<ActivityItem> hydrate(List<TimelineEntry> entries) {
+        return hydrate(entries, Collections.emptyMap(), Collections.emptyMap());
+    }
+
+    //documents already loaded by the caller are passed in and not fetched again
+    public List<ActivityItem> hydrate(List<TimelineEntry> entries, Map<String, Post> loadedPosts,
+                                      Map<String, LearningProgress> loadedProgress) {
+        List<String> postIds = new ArrayList<>();
+        List<String> progressIds = new ArrayList<>();
+        for (TimelineEntry entry : entries) {
+            if (TimelineEntry.TYPE_POST.equals(entry.getEntryType())) {
+                if (!loadedPosts.containsKey(entry.getEntryId())) {
+                    postIds.add(entry.getEntryId());
+                }
+            } else if (!loadedProgress.containsKey(entry.getEntryId())) {
+                progressIds.add(entry.getEntryId());
+            }
+        }
+        Map<String, Post> posts = new HashMap<>(loadedPosts);
+        postRepository.findAllById(postIds).forEach(post -> posts.put(post.getId(), post));
+        Map<String, LearningProgress> progress = new HashMap<>(loadedProgress);
+        learningProgressRepository.findAllById(progressIds).forEach(entry -> progress.put(entry.getId(), entry));
+
+        List<ActivityItem> items = new ArrayList<>(entries.size());
+        for (TimelineEntry entry : entries) {
+            if (TimelineEntry.TYPE_POST.equals(entry.getEntryType())) {
+                Post post = posts.get(entry.getEntryId());
+                if (post != null) {
+                    items.add(ActivityItem.ofPost(post));
+                }
+            } else {
+                LearningProgress entryProgress = progress.get(entry.getEntryId());
+                if (entryProgress != null) {
+                    items.add(ActivityItem.ofLearningProgress(entryProgress));
+                }
+            }
+        }
+        return items;
+    }
+}
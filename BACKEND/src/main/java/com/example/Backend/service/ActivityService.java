@@ -0,0 +1,71 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.ActivityItem;
+import com.example.Backend.dto.FeedPage;
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.model.Post;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+//one newest-first stream of posts and learning progress entries.
+//both collections are read through open cursors that are merged lazily, so a page never reads
+//more than pageSize + 1 documents from either side and usually about half of that from each
+@Service
+public class ActivityService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${feed.page-size.default:20}")
+    private int defaultPageSize;
+
+    @Value("${feed.page-size.max:100}")
+    private int maxPageSize;
+
+    public FeedPage<ActivityItem> getActivity(String cursorToken, Integer size) {
+        FeedCursor cursor = FeedCursor.decode(cursorToken);
+        int pageSize = FeedCursor.clampPageSize(size, defaultPageSize, maxPageSize);
+
+        //ids of both collections are ObjectIds, so (createdAt, id) is one total order across them
+        Comparator<ActivityItem> newestFirst = Comparator.comparing(ActivityItem::getCreatedAt)
+                .thenComparing(ActivityItem::getId)
+                .reversed();
+
+        List<ActivityItem> items = new ArrayList<>(pageSize + 1);
+        try (Stream<Post> posts = mongoTemplate.stream(pageQuery(cursor, pageSize), Post.class);
+             Stream<LearningProgress> progress = mongoTemplate.stream(pageQuery(cursor, pageSize),
+                     LearningProgress.class)) {
+            Iterator<ActivityItem> merged = new KWayMergeIterator<>(List.of(
+                    posts.map(ActivityItem::ofPost).iterator(),
+                    progress.map(ActivityItem::ofLearningProgress).iterator()), newestFirst);
+            while (merged.hasNext() && items.size() <= pageSize) {
+                items.add(merged.next());
+            }
+        }
+
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = new ArrayList<>(items.subList(0, pageSize));
+            ActivityItem last = items.get(pageSize - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new FeedPage<>(items, nextCursor);
+    }
+
+    //the cursor batch is kept at about half a page so the side that loses the merge is not read in full
+    private Query pageQuery(FeedCursor cursor, int pageSize) {
+        Query query = new Query();
+        if (cursor != null) {
+            query.addCriteria(cursor.toCriteria("createdAt", "id"));
+        }
+        return query.with(FeedCursor.sort("createdAt", "id"))
+                .limit(pageSize + 1)
+                .cursorBatchSize(pageSize / 2 + 1);
+    }
+}
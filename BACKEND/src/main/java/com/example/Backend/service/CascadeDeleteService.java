@@ -0,0 +1,138 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.Comment;
+import com.example.Backend.model.Notification;
+import com.example.Backend.model.TimelineEntry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+//removes everything that hangs off a deleted post or learning progress entry: notifications about it,
+//its comments and the timeline entries pointing at it. the delete request only queues the job, a single
+//background worker removes the dependents in batches with a pause in between so the cleanup of a
+//popular entry does not compete with regular traffic
+@Service
+public class CascadeDeleteService {
+
+    private static final Logger log = LoggerFactory.getLogger(CascadeDeleteService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final UnreadCounterService unreadCounters;
+    private final int batchSize;
+    private final long batchPauseMillis;
+    private final BlockingQueue<Runnable> queue;
+    private final ThreadPoolExecutor worker;
+    private final MeterRegistry meterRegistry;
+    private final Counter failed;
+    private final Timer duration;
+
+    public CascadeDeleteService(MongoTemplate mongoTemplate,
+                                UnreadCounterService unreadCounters,
+                                MeterRegistry meterRegistry,
+                                @Value("${cascade.batch-size:500}") int batchSize,
+                                @Value("${cascade.batch-pause-ms:50}") long batchPauseMillis,
+                                @Value("${cascade.queue-capacity:10000}") int queueCapacity) {
+        this.mongoTemplate = mongoTemplate;
+        this.unreadCounters = unreadCounters;
+        this.batchSize = batchSize;
+        this.batchPauseMillis = batchPauseMillis;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.worker = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, queue, runnable -> {
+            Thread thread = new Thread(runnable, "cascade-delete");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("cascade.pending", queue, BlockingQueue::size);
+        this.failed = meterRegistry.counter("cascade.failed");
+        this.duration = meterRegistry.timer("cascade.duration");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdown();
+    }
+
+    //when the queue is full the caller runs the cleanup itself rather than dropping it
+    public void enqueue(String entryType, String entryId) {
+        worker.execute(() -> run(entryType, entryId));
+    }
+
+    private void run(String entryType, String entryId) {
+        Map<String, Query> dependents = new LinkedHashMap<>();
+        dependents.put(mongoTemplate.getCollectionName(Notification.class),
+                new Query(Criteria.where("postId").is(entryId)));
+        dependents.put(mongoTemplate.getCollectionName(Comment.class),
+                new Query(Criteria.where("parentId").is(entryId).and("parentType").is(entryType)));
+        dependents.put(mongoTemplate.getCollectionName(TimelineEntry.class),
+                new Query(Criteria.where("entryId").is(entryId).and("entryType").is(entryType)));
+        try {
+            //unread notifications about the entry come off their recipients' badge counts afterwards
+            Map<String, Long> unread = unreadByRecipient(entryId);
+            duration.record(() -> dependents.forEach(this::removeInBatches));
+            unread.replaceAll((userId, count) -> -count);
+            unreadCounters.adjust(unread);
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("Cascade delete of {} {} failed: {}", entryType, entryId, e.getMessage());
+        }
+    }
+
+    private Map<String, Long> unreadByRecipient(String entryId) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("postId").is(entryId).and("read").is(false)),
+                Aggregation.group("userId").count().as("unread"));
+        Map<String, Long> unread = new HashMap<>();
+        for (Document result : mongoTemplate.aggregate(aggregation, Notification.class, Document.class)) {
+            unread.put(result.getString("_id"), ((Number) result.get("unread")).longValue());
+        }
+        return unread;
+    }
+
+    private void removeInBatches(String collection, Query match) {
+        Counter removed = meterRegistry.counter("cascade.removed", "collection", collection);
+        while (true) {
+            Query batch = Query.of(match).limit(batchSize);
+            batch.fields().include("_id");
+            List<Object> ids = new ArrayList<>(batchSize);
+            for (Document document : mongoTemplate.find(batch, Document.class, collection)) {
+                ids.add(document.get("_id"));
+            }
+            if (ids.isEmpty()) {
+                return;
+            }
+            long count = mongoTemplate.remove(new Query(Criteria.where("_id").in(ids)), collection).getDeletedCount();
+            removed.increment(count);
+            if (ids.size() < batchSize) {
+                return;
+            }
+            pause();
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(batchPauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Cascade delete interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.FeedPage;
+import com.example.Backend.model.Comment;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+//shared comment store for posts and learning progress entries. the parent document only keeps
+//commentCount and the latest inlineCount comments, full threads are read page by page from here
+@Service
+public class CommentService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${comments.inline-count:3}")
+    private int inlineCount;
+
+    @Value("${comments.refresh-attempts:5}")
+    private int refreshAttempts;
+
+    @Value("${comments.page-size.default:20}")
+    private int defaultPageSize;
+
+    @Value("${comments.page-size.max:100}")
+    private int maxPageSize;
+
+    //stores the comment and pushes a copy onto the parent's inlined preview, returns the updated parent
+    public <T> T addComment(Class<T> parentClass, String parentType, String parentId, String parentOwnerId,
+                            Comment comment) {
+        if (comment.getUserName() == null || comment.getUserName().isEmpty()) {
+            comment.setUserName("Unknown User");
+        }
+        comment.setId(UUID.randomUUID().toString());
+        comment.setParentId(parentId);
+        comment.setParentType(parentType);
+        comment.setParentOwnerId(parentOwnerId);
+        comment.setCreatedAt(new Date());
+        comment.setUpdatedAt(new Date());
+        mongoTemplate.insert(comment);
+
+        Update update = new Update().push("comments").slice(-inlineCount).each(inlineCopy(comment))
+                .inc("commentCount", 1).inc("version", 1);
+        return mongoTemplate.findAndModify(parentQuery(parentId), update,
+                FindAndModifyOptions.options().returnNew(true), parentClass);
+    }
+
+    //edits the stored comment and, if it is part of the parent's preview, its inlined copy in place through the
+    //positional operator; neither write reads the thread. when the body names an author only they may edit.
+    //returns null if no such comment exists on this parent
+    public Comment updateComment(Class<?> parentClass, String parentId, String commentId, Comment commentDetails) {
+        Date now = new Date();
+        Criteria match = Criteria.where("id").is(commentId).and("parentId").is(parentId);
+        if (commentDetails.getUserId() != null) {
+            match.and("userId").is(commentDetails.getUserId());
+        }
+        Update update = new Update().set("content", commentDetails.getContent()).set("updatedAt", now);
+        Comment updated = mongoTemplate.findAndModify(new Query(match), update,
+                FindAndModifyOptions.options().returnNew(true), Comment.class);
+        if (updated != null) {
+            Query inlined = new Query(Criteria.where("id").is(parentId).and("comments.id").is(commentId));
+            Update inlineUpdate = new Update().set("comments.$.content", updated.getContent())
+                    .set("comments.$.updatedAt", now).inc("version", 1);
+            mongoTemplate.updateFirst(inlined, inlineUpdate, parentClass);
+        }
+        return updated;
+    }
+
+    //the author check is part of the delete itself: only the comment author or the owner of the parent matches.
+    //the parent drops the comment from its preview with a conditional $pull, and only when the preview actually
+    //lost an entry is it topped up again from the newest inlineCount comments. returns null if nothing was removed
+    public Comment deleteComment(Class<?> parentClass, String parentId, String commentId, String userId) {
+        Query owned = new Query(Criteria.where("id").is(commentId).and("parentId").is(parentId)
+                .orOperator(Criteria.where("userId").is(userId), Criteria.where("parentOwnerId").is(userId)));
+        Comment removed = mongoTemplate.findAndRemove(owned, Comment.class);
+        if (removed == null) {
+            return null;
+        }
+        Query inlined = new Query(Criteria.where("id").is(parentId).and("comments.id").is(commentId));
+        Update pull = new Update().pull("comments", new Document(inlinedIdField(), commentId))
+                .inc("commentCount", -1).inc("version", 1);
+        if (mongoTemplate.updateFirst(inlined, pull, parentClass).getModifiedCount() > 0) {
+            refreshInlineComments(parentClass, parentId);
+        } else {
+            mongoTemplate.updateFirst(parentQuery(parentId),
+                    new Update().inc("commentCount", -1).inc("version", 1), parentClass);
+        }
+        return removed;
+    }
+
+    public FeedPage<Comment> getComments(String parentId, String cursorToken, Integer size) {
+        FeedCursor cursor = FeedCursor.decode(cursorToken);
+        int pageSize = FeedCursor.clampPageSize(size, defaultPageSize, maxPageSize);
+
+        Query query = new Query(Criteria.where("parentId").is(parentId));
+        if (cursor != null) {
+            query.addCriteria(cursor.toCriteria("createdAt", "id"));
+        }
+        query.with(FeedCursor.sort("createdAt", "id")).limit(pageSize + 1);
+
+        List<Comment> comments = mongoTemplate.find(query, Comment.class);
+        String nextCursor = null;
+        if (comments.size() > pageSize) {
+            comments = new ArrayList<>(comments.subList(0, pageSize));
+            Comment last = comments.get(pageSize - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new FeedPage<>(comments, nextCursor);
+    }
+
+    //rebuilds the parent's preview from the newest comments in the store. every preview change bumps the
+    //parent's version, so the rebuilt preview is only written if the version is still the one read before the
+    //store was queried; otherwise a comment was added or removed in between and the rebuild starts over.
+    //a writer that keeps winning maintains the preview itself, so giving up after refreshAttempts is safe
+    private void refreshInlineComments(Class<?> parentClass, String parentId) {
+        for (int attempt = 0; attempt < refreshAttempts; attempt++) {
+            Query versionQuery = parentQuery(parentId);
+            versionQuery.fields().include("version");
+            Document parent = mongoTemplate.findOne(versionQuery, Document.class,
+                    mongoTemplate.getCollectionName(parentClass));
+            if (parent == null) {
+                return;
+            }
+            List<Comment> latest = findLatestComments(parentId);
+            List<Comment> preview = new ArrayList<>(latest.size());
+            for (int i = latest.size() - 1; i >= 0; i--) {
+                preview.add(inlineCopy(latest.get(i)));
+            }
+            Query unchanged = new Query(Criteria.where("id").is(parentId).and("version").is(parent.get("version")));
+            Update update = new Update().set("comments", preview).inc("version", 1);
+            if (mongoTemplate.updateFirst(unchanged, update, parentClass).getMatchedCount() > 0) {
+                return;
+            }
+        }
+    }
+
+    private List<Comment> findLatestComments(String parentId) {
+        Query query = new Query(Criteria.where("parentId").is(parentId))
+                .with(FeedCursor.sort("createdAt", "id"))
+                .limit(inlineCount);
+        return mongoTemplate.find(query, Comment.class);
+    }
+
+    //moves comments embedded before the comment store existed into it; legacy parents have no commentCount
+    public long migrateEmbeddedComments(Class<?> parentClass, String parentType) {
+        Query legacy = new Query(Criteria.where("commentCount").exists(false));
+        legacy.fields().include("userId").include("comments");
+        long migrated = 0;
+        try (Stream<Document> parents = mongoTemplate.stream(legacy, Document.class,
+                mongoTemplate.getCollectionName(parentClass))) {
+            Iterator<Document> it = parents.iterator();
+            while (it.hasNext()) {
+                Document parent = it.next();
+                String parentId = parent.get("_id").toString();
+                List<Comment> comments = new ArrayList<>();
+                for (Document embedded : parent.getList("comments", Document.class, List.of())) {
+                    Comment comment = mongoTemplate.getConverter().read(Comment.class, embedded);
+                    if (comment.getId() == null) {
+                        comment.setId(UUID.randomUUID().toString());
+                    }
+                    comment.setParentId(parentId);
+                    comment.setParentType(parentType);
+                    comment.setParentOwnerId(parent.getString("userId"));
+                    comments.add(comment);
+                }
+                if (!comments.isEmpty()) {
+                    insertIgnoringDuplicates(comments);
+                }
+                List<Comment> preview = new ArrayList<>();
+                for (Comment comment : comments.subList(Math.max(0, comments.size() - inlineCount), comments.size())) {
+                    preview.add(inlineCopy(comment));
+                }
+                mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(parent.get("_id"))),
+                        new Update().set("comments", preview).set("commentCount", comments.size()).inc("version", 1),
+                        parentClass);
+                migrated++;
+            }
+        }
+        return migrated;
+    }
+
+    //a previous migration run may have stopped half way, comments it already copied keep their ids
+    private void insertIgnoringDuplicates(List<Comment> comments) {
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Comment.class).insert(comments).execute();
+        } catch (BulkOperationException e) {
+            boolean onlyDuplicates = e.getErrors().stream().allMatch(error -> error.getCode() == 11000);
+            if (!onlyDuplicates) {
+                throw e;
+            }
+        }
+    }
+
+    //the inlined preview does not repeat the parent reference fields
+    static Comment inlineCopy(Comment comment) {
+        Comment copy = new Comment();
+        copy.setId(comment.getId());
+        copy.setUserId(comment.getUserId());
+        copy.setUserName(comment.getUserName());
+        copy.setContent(comment.getContent());
+        copy.setCreatedAt(comment.getCreatedAt());
+        copy.setUpdatedAt(comment.getUpdatedAt());
+        return copy;
+    }
+
+    //the stored name of Comment.id, which is how the raw $pull condition has to refer to it
+    private String inlinedIdField() {
+        return mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(Comment.class)
+                .getRequiredIdProperty().getFieldName();
+    }
+
+    private Query parentQuery(String parentId) {
+        return new Query(Criteria.where("id").is(parentId));
+    }
+}
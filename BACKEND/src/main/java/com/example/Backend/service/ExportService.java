@@ -0,0 +1,73 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.model.Post;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+//writes whole collections as newline-delimited json, one document per line.
+//documents come off a mongo cursor batch by batch and go straight into a streaming generator,
+//so only the current batch is ever held in memory no matter how big the collection is
+@Service
+public class ExportService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${export.batch-size:500}")
+    private int batchSize;
+
+    public void exportPosts(OutputStream out, boolean gzip) throws IOException {
+        export(Post.class, out, gzip);
+    }
+
+    public void exportLearningProgress(OutputStream out, boolean gzip) throws IOException {
+        export(LearningProgress.class, out, gzip);
+    }
+
+    private <T> void export(Class<T> type, OutputStream out, boolean gzip) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+        //the writer would otherwise flush after every document, flushing is left to the batch boundary below
+        ObjectWriter writer = objectMapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        //oldest first on _id so the export order is stable while new documents keep coming in
+        Query query = new Query().with(Sort.by("id")).cursorBatchSize(batchSize);
+        try (Stream<T> documents = mongoTemplate.stream(query, type);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(target)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            //root values are separated by a space by default, lines must start with the document itself
+            generator.setRootValueSeparator(null);
+            Iterator<T> iterator = documents.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                //hand each batch to the client instead of letting the container buffer it
+                if (++written % batchSize == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
+        if (target instanceof GZIPOutputStream gzipTarget) {
+            gzipTarget.finish();
+        }
+        out.flush();
+    }
+}
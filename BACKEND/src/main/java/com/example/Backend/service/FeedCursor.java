@@ -0,0 +1,69 @@
+package com.example.Backend.service;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+//opaque keyset cursor for createdAt-ordered feeds, encodes the (createdAt, id) of the last item returned
+public final class FeedCursor {
+
+    private final Date createdAt;
+    private final String id;
+
+    public FeedCursor(Date createdAt, String id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    //returns null for a missing cursor, which means "start from the newest item"
+    public static FeedCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            long millis = Long.parseLong(raw.substring(0, separator));
+            return new FeedCursor(new Date(millis), raw.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt.getTime() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    //items strictly after this cursor in (timeField desc, idField desc) order
+    public Criteria toCriteria(String timeField, String idField) {
+        return new Criteria().orOperator(
+                Criteria.where(timeField).lt(createdAt),
+                Criteria.where(timeField).is(createdAt).and(idField).lt(id));
+    }
+
+    public static Sort sort(String timeField, String idField) {
+        return Sort.by(Sort.Direction.DESC, timeField, idField);
+    }
+
+    public static int clampPageSize(Integer requested, int defaultSize, int maxSize) {
+        if (requested == null || requested <= 0) {
+            return defaultSize;
+        }
+        return Math.min(requested, maxSize);
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.FeedPage;
+import com.example.Backend.dto.LearningProgressSummaryDTO;
+import com.example.Backend.dto.PostSummaryDTO;
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.model.Post;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+//feed pages as summaries: the server projects scalar fields plus likeCount, commentCount and likedByMe,
+//so the likes and comments arrays never leave the database on the feed path
+@Service
+public class FeedSummaryService {
+
+    private static final List<String> POST_FIELDS = List.of("userId", "userName", "description", "mediaUrls",
+            "thumbnailUrls", "createdAt", "updatedAt", "likeCount", "commentCount");
+
+    private static final List<String> LEARNING_PROGRESS_FIELDS = List.of("userId", "userName", "title",
+            "description", "templateType", "status", "tutorialName", "projectName", "skillsLearned", "challenges",
+            "nextSteps", "createdAt", "updatedAt", "likeCount", "commentCount");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${feed.page-size.default:20}")
+    private int defaultPageSize;
+
+    @Value("${feed.page-size.max:100}")
+    private int maxPageSize;
+
+    public FeedPage<PostSummaryDTO> getPostSummaries(String viewerId, String cursorToken, Integer size) {
+        return summaries(Post.class, PostSummaryDTO.class, POST_FIELDS, viewerId, cursorToken, size,
+                summary -> new FeedCursor(summary.getCreatedAt(), summary.getId()));
+    }
+
+    public FeedPage<LearningProgressSummaryDTO> getLearningProgressSummaries(String viewerId, String cursorToken,
+                                                                            Integer size) {
+        return summaries(LearningProgress.class, LearningProgressSummaryDTO.class, LEARNING_PROGRESS_FIELDS, viewerId,
+                cursorToken, size, summary -> new FeedCursor(summary.getCreatedAt(), summary.getId()));
+    }
+
+    private <T> FeedPage<T> summaries(Class<?> entityType, Class<T> summaryType, List<String> fields, String viewerId,
+                                      String cursorToken, Integer size, Function<T, FeedCursor> cursorOf) {
+        FeedCursor cursor = FeedCursor.decode(cursorToken);
+        int pageSize = FeedCursor.clampPageSize(size, defaultPageSize, maxPageSize);
+
+        List<AggregationOperation> stages = new ArrayList<>();
+        if (cursor != null) {
+            stages.add(Aggregation.match(cursor.toCriteria("createdAt", "id")));
+        }
+        stages.add(Aggregation.sort(FeedCursor.sort("createdAt", "id")));
+        stages.add(Aggregation.limit(pageSize + 1));
+        stages.add(context -> new Document("$project", summaryProjection(fields, viewerId)));
+
+        List<T> items = new ArrayList<>(mongoTemplate.aggregate(Aggregation.newAggregation(entityType, stages),
+                summaryType).getMappedResults());
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = new ArrayList<>(items.subList(0, pageSize));
+            nextCursor = cursorOf.apply(items.get(pageSize - 1)).encode();
+        }
+        return new FeedPage<>(items, nextCursor);
+    }
+
+    private Document summaryProjection(List<String> fields, String viewerId) {
+        Document projection = new Document();
+        for (String field : fields) {
+            projection.append(field, 1);
+        }
+        if (viewerId == null || viewerId.isEmpty()) {
+            projection.append("likedByMe", new Document("$literal", false));
+        } else {
+            projection.append("likedByMe", new Document("$in", List.of(viewerId,
+                    new Document("$ifNull", List.of("$likes.userId", List.of())))));
+        }
+        return projection;
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.ImportLineError;
+import com.example.Backend.dto.ImportResult;
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.model.Post;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+//bulk import of newline-delimited json. the request thread parses and validates lines into batches while
+//a small insert pool writes earlier batches with unordered bulk inserts, at most maxInFlight batches per
+//import are waiting so memory stays bounded. every rejected line is reported with its line number
+@Service
+public class ImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportService.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private LearningProgressService learningProgressService;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Value("${import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${import.max-in-flight:2}")
+    private int maxInFlight;
+
+    @Value("${import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    private final ExecutorService insertPool;
+
+    public ImportService(@Value("${import.insert-threads:4}") int insertThreads) {
+        this.insertPool = Executors.newFixedThreadPool(insertThreads, runnable -> {
+            Thread thread = new Thread(runnable, "bulk-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        insertPool.shutdown();
+    }
+
+    public ImportResult importPosts(InputStream in) throws IOException {
+        return run(in, Post.class, post -> {
+            Date createdAt = post.getCreatedAt();
+            postService.prepareNewPost(post);
+            keepCreatedAt(createdAt, post::setCreatedAt);
+            post.setId(new ObjectId().toHexString());
+            post.setVersion(0L);
+        }, posts -> {
+            timelineService.fanOutPosts(posts);
+            searchService.indexPosts(posts);
+            //same bounded queue as createPost, when it is full the feed shows the original images
+            for (Post post : posts) {
+                thumbnailService.enqueue(post);
+            }
+        });
+    }
+
+    public ImportResult importLearningProgress(InputStream in) throws IOException {
+        return run(in, LearningProgress.class, progress -> {
+            Date createdAt = progress.getCreatedAt();
+            learningProgressService.prepareNewLearningProgress(progress);
+            keepCreatedAt(createdAt, progress::setCreatedAt);
+            progress.setId(new ObjectId().toHexString());
+            progress.setVersion(0L);
+        }, entries -> {
+            timelineService.fanOutLearningProgress(entries);
+            searchService.indexLearningProgress(entries);
+        });
+    }
+
+    //migrated content keeps its original timestamp, everything else gets the creation time
+    private static void keepCreatedAt(Date createdAt, Consumer<Date> setter) {
+        if (createdAt != null) {
+            setter.accept(createdAt);
+        }
+    }
+
+    //afterInsert gets the documents of one batch that were actually inserted
+    private <T> ImportResult run(InputStream in, Class<T> type, Consumer<T> prepare,
+                                 Consumer<List<T>> afterInsert) throws IOException {
+        Tally tally = new Tally(maxReportedErrors);
+        ObjectReader reader = objectMapper.readerFor(type);
+        Deque<Future<?>> inFlight = new ArrayDeque<>();
+        List<T> batch = new ArrayList<>(batchSize);
+        List<Long> batchLines = new ArrayList<>(batchSize);
+
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                tally.received();
+                try {
+                    T document = reader.readValue(line);
+                    prepare.accept(document);
+                    batch.add(document);
+                    batchLines.add(lineNumber);
+                } catch (JsonProcessingException e) {
+                    tally.failed(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+                } catch (RuntimeException e) {
+                    //validation errors and anything else a single bad line trips over
+                    tally.failed(lineNumber, e.getMessage() != null ? e.getMessage() : e.toString());
+                }
+                if (batch.size() == batchSize) {
+                    submit(type, batch, batchLines, afterInsert, tally, inFlight);
+                    batch = new ArrayList<>(batchSize);
+                    batchLines = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                submit(type, batch, batchLines, afterInsert, tally, inFlight);
+            }
+        } finally {
+            while (!inFlight.isEmpty()) {
+                await(inFlight.poll());
+            }
+        }
+        return tally.toResult();
+    }
+
+    private <T> void submit(Class<T> type, List<T> batch, List<Long> batchLines, Consumer<List<T>> afterInsert,
+                            Tally tally, Deque<Future<?>> inFlight) {
+        //back-pressure: parsing waits for the oldest insert once the pipeline is full
+        while (inFlight.size() >= maxInFlight) {
+            await(inFlight.poll());
+        }
+        inFlight.add(insertPool.submit(() -> insert(type, batch, batchLines, afterInsert, tally)));
+    }
+
+    private <T> void insert(Class<T> type, List<T> batch, List<Long> batchLines, Consumer<List<T>> afterInsert,
+                            Tally tally) {
+        Set<Integer> rejected = new HashSet<>();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type).insert(batch).execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                rejected.add(error.getIndex());
+                tally.failed(batchLines.get(error.getIndex()), error.getMessage());
+            }
+        } catch (RuntimeException e) {
+            for (Long line : batchLines) {
+                tally.failed(line, e.getMessage());
+            }
+            return;
+        }
+        List<T> inserted = new ArrayList<>(batch.size() - rejected.size());
+        for (int i = 0; i < batch.size(); i++) {
+            if (!rejected.contains(i)) {
+                inserted.add(batch.get(i));
+                tally.imported();
+            }
+        }
+        if (inserted.isEmpty()) {
+            return;
+        }
+        try {
+            afterInsert.accept(inserted);
+        } catch (RuntimeException e) {
+            //the documents are stored, search picks them up on the next rebuild
+            log.warn("Imported {} {} documents but could not fan them out or index them: {}", inserted.size(),
+                    type.getSimpleName(), e.getMessage());
+        }
+    }
+
+    private static void await(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Import batch failed", e.getCause());
+        }
+    }
+
+    //counters shared by the parsing thread and the insert pool
+    private static final class Tally {
+        private final int maxErrors;
+        private long received;
+        private long imported;
+        private long failed;
+        private final List<ImportLineError> errors = new ArrayList<>();
+
+        private Tally(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        synchronized void received() {
+            received++;
+        }
+
+        synchronized void imported() {
+            imported++;
+        }
+
+        synchronized void failed(long line, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportLineError(line, message));
+            }
+        }
+
+        synchronized ImportResult toResult() {
+            ImportResult result = new ImportResult();
+            result.setReceived(received);
+            result.setImported(imported);
+            result.setFailed(failed);
+            List<ImportLineError> sorted = new ArrayList<>(errors);
+            sorted.sort(Comparator.comparingLong(ImportLineError::getLine));
+            result.setErrors(sorted);
+            return result;
+        }
+    }
+}
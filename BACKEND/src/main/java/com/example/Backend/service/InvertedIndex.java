@@ -0,0 +1,176 @@
+package com.example.Backend.service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+//in-memory inverted index with BM25 ranking. documents are identified by an opaque key and can be
+//re-indexed or removed at any time; readers and writers are separated by a read/write lock
+public class InvertedIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "i", "in", "is", "it", "my", "of",
+            "on", "or", "that", "the", "this", "to", "was", "were", "with");
+
+    private final Map<String, Map<String, Integer>> postings = new HashMap<>();
+    private final Map<String, Map<String, Integer>> documentTerms = new HashMap<>();
+    private final Map<String, Integer> documentLengths = new HashMap<>();
+    private long totalLength;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (current.length() > 0) {
+                String token = current.toString();
+                if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+                current.setLength(0);
+            }
+        }
+        return tokens;
+    }
+
+    //replaces whatever was indexed under key before
+    public void put(String key, String... fields) {
+        putAll(Map.of(key, fields));
+    }
+
+    //like put for several documents, tokenized up front and written under a single write lock
+    public void putAll(Map<String, String[]> documents) {
+        Map<String, Map<String, Integer>> tokenized = new HashMap<>();
+        for (Map.Entry<String, String[]> document : documents.entrySet()) {
+            Map<String, Integer> termFrequencies = new HashMap<>();
+            for (String field : document.getValue()) {
+                for (String token : tokenize(field)) {
+                    termFrequencies.merge(token, 1, Integer::sum);
+                }
+            }
+            tokenized.put(document.getKey(), termFrequencies);
+        }
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<String, Map<String, Integer>> document : tokenized.entrySet()) {
+                String key = document.getKey();
+                Map<String, Integer> termFrequencies = document.getValue();
+                removeLocked(key);
+                if (termFrequencies.isEmpty()) {
+                    continue;
+                }
+                int length = 0;
+                for (Map.Entry<String, Integer> term : termFrequencies.entrySet()) {
+                    postings.computeIfAbsent(term.getKey(), t -> new HashMap<>()).put(key, term.getValue());
+                    length += term.getValue();
+                }
+                documentTerms.put(key, termFrequencies);
+                documentLengths.put(key, length);
+                totalLength += length;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(String key) {
+        Map<String, Integer> terms = documentTerms.remove(key);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms.keySet()) {
+            Map<String, Integer> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(key);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        Integer length = documentLengths.remove(key);
+        if (length != null) {
+            totalLength -= length;
+        }
+    }
+
+    //top limit keys by BM25 score, best first. keys rejected by the filter are skipped before ranking
+    public List<Match> search(String query, int limit, Predicate<String> filter) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (terms.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            int documentCount = documentLengths.size();
+            if (documentCount == 0) {
+                return Collections.emptyList();
+            }
+            double averageLength = (double) totalLength / documentCount;
+            Map<String, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<String, Integer> docs = postings.get(term);
+                if (docs == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - docs.size() + 0.5) / (docs.size() + 0.5));
+                for (Map.Entry<String, Integer> doc : docs.entrySet()) {
+                    if (!filter.test(doc.getKey())) {
+                        continue;
+                    }
+                    int tf = doc.getValue();
+                    double norm = K1 * (1 - B + B * documentLengths.get(doc.getKey()) / averageLength);
+                    scores.merge(doc.getKey(), idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                }
+            }
+            PriorityQueue<Match> top = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(Match::getScore));
+            for (Map.Entry<String, Double> score : scores.entrySet()) {
+                top.add(new Match(score.getKey(), score.getValue()));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            List<Match> matches = new ArrayList<>(top);
+            matches.sort(Comparator.comparingDouble(Match::getScore).reversed());
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static final class Match {
+        private final String key;
+        private final double score;
+
+        public Match(String key, double score) {
+            this.key = key;
+            this.score = score;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+}
@@ -1,15 +1,20 @@
 package com.example.Backend.service;
 
+import com.example.Backend.dto.FeedPage;
+import com.example.Backend.dto.LearningProgressSummaryDTO;
 import com.example.Backend.model.Comment;
 import com.example.Backend.model.LearningProgress;
 import com.example.Backend.model.Like;
+import com.example.Backend.model.TimelineEntry;
 import com.example.Backend.repository.LearningProgressRepository;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 public class LearningProgressService {
@@ -17,14 +22,54 @@ public class LearningProgressService {
 
     private final LearningProgressRepository learningProgressRepository;
     private final NotificationService notificationService;
+    private final TimelineService timelineService;
+    private final MongoTemplate mongoTemplate;
+    private final CommentService commentService;
+    private final FeedSummaryService feedSummaryService;
+    private final LikeIndex likeIndex;
+    private final LikeService likeService;
+    private final RetryOnConflictExecutor retryOnConflictExecutor;
+    private final SearchService searchService;
+    private final TrendingService trendingService;
+    private final CascadeDeleteService cascadeDeleteService;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
-    public LearningProgressService(LearningProgressRepository learningProgressRepository, NotificationService notificationService) {
+    public LearningProgressService(LearningProgressRepository learningProgressRepository, NotificationService notificationService,
+                                   TimelineService timelineService, MongoTemplate mongoTemplate,
+                                   CommentService commentService, FeedSummaryService feedSummaryService,
+                                   LikeIndex likeIndex, LikeService likeService,
+                                   RetryOnConflictExecutor retryOnConflictExecutor, SearchService searchService,
+                                   TrendingService trendingService, CascadeDeleteService cascadeDeleteService,
+                                   @Value("${feed.page-size.default:20}") int defaultPageSize,
+                                   @Value("${feed.page-size.max:100}") int maxPageSize) {
         this.learningProgressRepository = learningProgressRepository;
         this.notificationService = notificationService;
+        this.timelineService = timelineService;
+        this.mongoTemplate = mongoTemplate;
+        this.commentService = commentService;
+        this.feedSummaryService = feedSummaryService;
+        this.likeIndex = likeIndex;
+        this.likeService = likeService;
+        this.retryOnConflictExecutor = retryOnConflictExecutor;
+        this.searchService = searchService;
+        this.trendingService = trendingService;
+        this.cascadeDeleteService = cascadeDeleteService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
     //create a new learning progress entry
     public LearningProgress createLearningProgress(LearningProgress progress) {
+        prepareNewLearningProgress(progress);
+        LearningProgress saved = learningProgressRepository.save(progress);
+        timelineService.fanOutLearningProgress(saved);
+        searchService.indexLearningProgress(saved);
+        return saved;
+    }
+
+    //validate an entry against its template and reset its counters, shared with bulk import
+    public void prepareNewLearningProgress(LearningProgress progress) {
         if (progress.getUserId() == null || progress.getUserId().isEmpty()) {
             throw new IllegalArgumentException("User ID is required");
         }
@@ -62,8 +107,9 @@ public class LearningProgressService {
         progress.setCreatedAt(new Date());
         progress.setUpdatedAt(new Date());
         progress.setLikes(new ArrayList<>());
+        progress.setLikeCount(0);
         progress.setComments(new ArrayList<>());
-        return learningProgressRepository.save(progress);
+        progress.setCommentCount(0);
     }
 
     //get all learning progress entries
@@ -71,109 +117,150 @@ public class LearningProgressService {
         return learningProgressRepository.findAllByOrderByCreatedAtDesc();
     }
 
+    //get one page of entries as summaries, newest first
+    public FeedPage<LearningProgressSummaryDTO> getLearningProgressSummaries(String viewerId, String cursor, Integer size) {
+        return feedSummaryService.getLearningProgressSummaries(viewerId, cursor, size);
+    }
+
     //get a learning progress entry by ID
     public LearningProgress getLearningProgressById(String id) {
         return learningProgressRepository.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("Learning progress not found"));
     }
 
-    //get entries by user ID
+    //get entries by user ID, newest first
     public List<LearningProgress> getLearningProgressByUserId(String userId) {
-        return learningProgressRepository.findByUserId(userId);
+        return learningProgressRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    }
+
+    //one page of entries matching every filter that is given, newest first. equality filters come before the
+    //createdAt sort and range in the compound indexes on LearningProgress so each page is a bounded index scan
+    public FeedPage<LearningProgress> findLearningProgress(String userId, String templateType, String status,
+                                                          Date from, Date to, String cursorToken, Integer size) {
+        FeedCursor cursor = FeedCursor.decode(cursorToken);
+        int pageSize = FeedCursor.clampPageSize(size, defaultPageSize, maxPageSize);
+
+        Query query = new Query();
+        if (userId != null && !userId.isEmpty()) {
+            query.addCriteria(Criteria.where("userId").is(userId));
+        }
+        if (templateType != null && !templateType.isEmpty()) {
+            query.addCriteria(Criteria.where("templateType").is(templateType));
+        }
+        if (status != null && !status.isEmpty()) {
+            query.addCriteria(Criteria.where("status").is(status));
+        }
+        if (from != null || to != null) {
+            Criteria range = Criteria.where("createdAt");
+            if (from != null) {
+                range.gte(from);
+            }
+            if (to != null) {
+                range.lt(to);
+            }
+            query.addCriteria(range);
+        }
+        if (cursor != null) {
+            query.addCriteria(cursor.toCriteria("createdAt", "id"));
+        }
+        query.with(FeedCursor.sort("createdAt", "id")).limit(pageSize + 1);
+
+        List<LearningProgress> entries = mongoTemplate.find(query, LearningProgress.class);
+        String nextCursor = null;
+        if (entries.size() > pageSize) {
+            entries = new ArrayList<>(entries.subList(0, pageSize));
+            LearningProgress last = entries.get(pageSize - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new FeedPage<>(entries, nextCursor);
     }
 
     //update learning progress entry
     public LearningProgress updateLearningProgress(String id, LearningProgress progressDetails) {
-        LearningProgress progress = getLearningProgressById(id);
-        progress.setTitle(progressDetails.getTitle());
-        progress.setDescription(progressDetails.getDescription());
-        progress.setTemplateType(progressDetails.getTemplateType());
-        progress.setStatus(progressDetails.getStatus());
-        progress.setTutorialName(progressDetails.getTutorialName());
-        progress.setProjectName(progressDetails.getProjectName());
-        progress.setSkillsLearned(progressDetails.getSkillsLearned());
-        progress.setChallenges(progressDetails.getChallenges());
-        progress.setNextSteps(progressDetails.getNextSteps());
-        progress.setUpdatedAt(new Date());
-        return learningProgressRepository.save(progress);
+        LearningProgress updated = retryOnConflictExecutor.execute("updateLearningProgress", () -> {
+            LearningProgress progress = getLearningProgressById(id);
+            progress.setTitle(progressDetails.getTitle());
+            progress.setDescription(progressDetails.getDescription());
+            progress.setTemplateType(progressDetails.getTemplateType());
+            progress.setStatus(progressDetails.getStatus());
+            progress.setTutorialName(progressDetails.getTutorialName());
+            progress.setProjectName(progressDetails.getProjectName());
+            progress.setSkillsLearned(progressDetails.getSkillsLearned());
+            progress.setChallenges(progressDetails.getChallenges());
+            progress.setNextSteps(progressDetails.getNextSteps());
+            progress.setUpdatedAt(new Date());
+            return learningProgressRepository.save(progress);
+        });
+        searchService.indexLearningProgress(updated);
+        return updated;
     }
 
     //delete learning progress entry
     public void deleteLearningProgress(String id) {
         LearningProgress progress = getLearningProgressById(id);
         learningProgressRepository.delete(progress);
+        likeIndex.evict(id);
+        searchService.removeLearningProgress(id);
+        trendingService.remove(TimelineEntry.TYPE_LEARNING_PROGRESS, id);
+        cascadeDeleteService.enqueue(TimelineEntry.TYPE_LEARNING_PROGRESS, id);
     }
 
     //add comment
     public LearningProgress addComment(String entryId, Comment comment) {
-        LearningProgress progress = getLearningProgressById(entryId);
-        if (progress.getComments() == null) {
-            progress.setComments(new ArrayList<>());
-        }
-        if (comment.getUserName() == null || comment.getUserName().isEmpty()) {
-            comment.setUserName("Unknown User");
-        }
-        comment.setId(UUID.randomUUID().toString());
-        comment.setCreatedAt(new Date());
-        comment.setUpdatedAt(new Date());
-        progress.getComments().add(comment);
-        if (!progress.getUserId().equals(comment.getUserId())) {
-            notificationService.createCommentNotification(entryId, progress.getUserId(), comment.getUserId(),
+        String ownerId = getOwnerId(entryId);
+        LearningProgress progress = commentService.addComment(LearningProgress.class,
+                Comment.PARENT_LEARNING_PROGRESS, entryId, ownerId, comment);
+        trendingService.recordComment(TimelineEntry.TYPE_LEARNING_PROGRESS, entryId, 1, comment.getCreatedAt());
+        if (!ownerId.equals(comment.getUserId())) {
+            notificationService.createCommentNotification(entryId, ownerId, comment.getUserId(),
                     comment.getContent());
         }
-        return learningProgressRepository.save(progress);
+        return progress;
     }
 
-    //update comment
-    public LearningProgress updateComment(String entryId, String commentId, Comment commentDetails) {
-        LearningProgress progress = getLearningProgressById(entryId);
-        progress.getComments().stream()
-                .filter(c -> c.getId().equals(commentId))
-                .findFirst()
-                .ifPresent(c -> {
-                    c.setContent(commentDetails.getContent());
-                    c.setUpdatedAt(new Date());
-                });
-        return learningProgressRepository.save(progress);
+    //page through comments, newest first
+    public FeedPage<Comment> getComments(String entryId, String cursor, Integer size) {
+        return commentService.getComments(entryId, cursor, size);
     }
 
-    //delete comment
-    public LearningProgress deleteComment(String entryId, String commentId, String userId) {
-        LearningProgress progress = getLearningProgressById(entryId);
-        boolean isOwner = progress.getUserId().equals(userId);
-        progress.setComments(progress.getComments().stream()
-                .filter(c -> !(c.getId().equals(commentId) && (c.getUserId().equals(userId) || isOwner)))
-                .collect(Collectors.toList()));
-        return learningProgressRepository.save(progress);
+    //update comment, returns only the edited comment or null if there is no such comment
+    public Comment updateComment(String entryId, String commentId, Comment commentDetails) {
+        return commentService.updateComment(LearningProgress.class, entryId, commentId, commentDetails);
     }
 
-    //add like
-    public LearningProgress addLike(String entryId, Like like) {
-        LearningProgress progress = getLearningProgressById(entryId);
-        if (progress.getLikes() == null) {
-            progress.setLikes(new ArrayList<>());
+    //delete comment, returns the removed comment or null if userId may not delete it
+    public Comment deleteComment(String entryId, String commentId, String userId) {
+        Comment removed = commentService.deleteComment(LearningProgress.class, entryId, commentId, userId);
+        if (removed != null) {
+            trendingService.recordComment(TimelineEntry.TYPE_LEARNING_PROGRESS, entryId, -1, removed.getCreatedAt());
         }
-        boolean alreadyLiked = progress.getLikes().stream()
-                .anyMatch(l -> l.getUserId().equals(like.getUserId()));
-
-        if (!alreadyLiked) {
-            like.setCreatedAt(new Date());
-            progress.getLikes().add(like);
-            // Trigger notification if liker is not the post owner
-            if (!progress.getUserId().equals(like.getUserId())) {
-                notificationService.createLikeNotification(entryId, progress.getUserId(), like.getUserId());
-            }
-            return learningProgressRepository.save(progress);
+        return removed;
+    }
+
+    private String getOwnerId(String entryId) {
+        Query query = new Query(Criteria.where("id").is(entryId));
+        query.fields().include("userId");
+        LearningProgress progress = mongoTemplate.findOne(query, LearningProgress.class);
+        if (progress == null) {
+            throw new NoSuchElementException("Learning progress not found");
         }
-        return progress;
+        return progress.getUserId();
+    }
+
+    //add like; returns only id, userId and likeCount, or null when the like was accepted by the write-behind buffer
+    public LearningProgress addLike(String entryId, Like like) {
+        return likeService.addLike(LearningProgress.class, TimelineEntry.TYPE_LEARNING_PROGRESS, "Learning progress",
+                entryId, like);
     }
 
     //remove like
     public LearningProgress removeLike(String entryId, String userId) {
-        LearningProgress progress = getLearningProgressById(entryId);
-        progress.setLikes(progress.getLikes().stream()
-                .filter(like -> !like.getUserId().equals(userId))
-                .collect(Collectors.toList()));
-        return learningProgressRepository.save(progress);
+        return likeService.removeLike(LearningProgress.class, TimelineEntry.TYPE_LEARNING_PROGRESS,
+                "Learning progress", entryId, userId);
+    }
+
+    //which of the given entries userId has liked, answered from the in-memory like index
+    public Map<String, Boolean> getLikedByUser(String userId, List<String> entryIds) {
+        return likeIndex.likedBy(LearningProgress.class, userId, entryIds);
     }
 }
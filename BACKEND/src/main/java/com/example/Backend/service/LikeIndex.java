@@ -0,0 +1,181 @@
+package com.example.Backend.service;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//in-memory "who liked what" index: every user that ever liked something gets a dense ordinal and every
+//post / learning progress entry a compressed bitmap of liker ordinals. bitmaps are loaded lazily from
+//mongo (only likes.userId is read) and kept current by the like and unlike paths. the number of cached
+//bitmaps is bounded, least recently used ones are dropped and reloaded on demand
+@Component
+public class LikeIndex {
+
+    private final MongoTemplate mongoTemplate;
+    private final Map<String, Integer> userOrdinals = new ConcurrentHashMap<>();
+    private final AtomicInteger nextOrdinal = new AtomicInteger();
+    private final Map<String, Entry> entries;
+
+    public LikeIndex(MongoTemplate mongoTemplate, @Value("${likes.index.max-entries:100000}") int maxEntries) {
+        this.mongoTemplate = mongoTemplate;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    //for each id, whether userId has liked it. ids that are not cached are loaded with one query
+    public Map<String, Boolean> likedBy(Class<?> parentClass, String userId, Collection<String> parentIds) {
+        Map<String, Entry> resolved = resolve(parentClass, parentIds);
+        Integer ordinal = userOrdinals.get(userId);
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        for (String parentId : parentIds) {
+            result.put(parentId, ordinal != null && resolved.get(parentId).contains(ordinal));
+        }
+        return result;
+    }
+
+    public void recordLike(String parentId, String userId) {
+        Entry entry = entries.get(parentId);
+        if (entry != null) {
+            entry.apply(ordinal(userId), true);
+        }
+    }
+
+    public void recordUnlike(String parentId, String userId) {
+        Entry entry = entries.get(parentId);
+        if (entry != null) {
+            entry.apply(ordinal(userId), false);
+        }
+    }
+
+    //applies a like or unlike and reports whether it changed the liker set, loading the parent first if needed
+    public boolean update(Class<?> parentClass, String parentId, String userId, boolean liked) {
+        Entry entry = resolve(parentClass, List.of(parentId)).get(parentId);
+        return entry.update(ordinal(userId), liked);
+    }
+
+    public void evict(String parentId) {
+        entries.remove(parentId);
+    }
+
+    private Map<String, Entry> resolve(Class<?> parentClass, Collection<String> parentIds) {
+        Map<String, Entry> resolved = new HashMap<>();
+        Map<String, Entry> toLoad = new HashMap<>();
+        synchronized (entries) {
+            for (String parentId : parentIds) {
+                Entry entry = entries.get(parentId);
+                if (entry == null) {
+                    entry = new Entry();
+                    entries.put(parentId, entry);
+                    toLoad.put(parentId, entry);
+                }
+                resolved.put(parentId, entry);
+            }
+        }
+        if (!toLoad.isEmpty()) {
+            load(parentClass, toLoad);
+        }
+        return resolved;
+    }
+
+    private void load(Class<?> parentClass, Map<String, Entry> toLoad) {
+        Map<String, RoaringBitmap> snapshots = new HashMap<>();
+        try {
+            List<Object> ids = new ArrayList<>(toLoad.size());
+            for (String parentId : toLoad.keySet()) {
+                ids.add(ObjectId.isValid(parentId) ? new ObjectId(parentId) : parentId);
+            }
+            Query query = new Query(Criteria.where("_id").in(ids));
+            query.fields().include("likes.userId");
+            for (Document parent : mongoTemplate.find(query, Document.class,
+                    mongoTemplate.getCollectionName(parentClass))) {
+                RoaringBitmap bitmap = new RoaringBitmap();
+                for (Document like : parent.getList("likes", Document.class, List.of())) {
+                    String likerId = like.getString("userId");
+                    if (likerId != null) {
+                        bitmap.add(ordinal(likerId));
+                    }
+                }
+                bitmap.runOptimize();
+                snapshots.put(parent.get("_id").toString(), bitmap);
+            }
+        } finally {
+            //a failed load still completes the entries (empty) so waiting readers are released, but they are
+            //not kept in the cache
+            for (Map.Entry<String, Entry> loading : toLoad.entrySet()) {
+                RoaringBitmap snapshot = snapshots.get(loading.getKey());
+                loading.getValue().complete(snapshot != null ? snapshot : new RoaringBitmap());
+                if (snapshot == null) {
+                    entries.remove(loading.getKey(), loading.getValue());
+                }
+            }
+        }
+    }
+
+    private int ordinal(String userId) {
+        return userOrdinals.computeIfAbsent(userId, id -> nextOrdinal.getAndIncrement());
+    }
+
+    //likes and unlikes that arrive while the snapshot is being read are buffered and replayed on top of it;
+    //both are idempotent set operations so replaying one that the snapshot already contains is harmless
+    private static final class Entry {
+        private final CountDownLatch loaded = new CountDownLatch(1);
+        private final List<int[]> pending = new ArrayList<>();
+        private RoaringBitmap bitmap;
+
+        synchronized void apply(int ordinal, boolean liked) {
+            if (bitmap == null) {
+                pending.add(new int[]{ordinal, liked ? 1 : 0});
+            } else if (liked) {
+                bitmap.add(ordinal);
+            } else {
+                bitmap.remove(ordinal);
+            }
+        }
+
+        synchronized void complete(RoaringBitmap snapshot) {
+            bitmap = snapshot;
+            for (int[] op : pending) {
+                apply(op[0], op[1] == 1);
+            }
+            pending.clear();
+            loaded.countDown();
+        }
+
+        boolean contains(int ordinal) {
+            awaitLoaded();
+            synchronized (this) {
+                return bitmap.contains(ordinal);
+            }
+        }
+
+        boolean update(int ordinal, boolean liked) {
+            awaitLoaded();
+            synchronized (this) {
+                return liked ? bitmap.checkedAdd(ordinal) : bitmap.checkedRemove(ordinal);
+            }
+        }
+
+        private void awaitLoaded() {
+            try {
+                loaded.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while loading likes", e);
+            }
+        }
+    }
+}
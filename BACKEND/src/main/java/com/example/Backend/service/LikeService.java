@@ -0,0 +1,120 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.Like;
+import com.example.Backend.model.Likeable;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.NoSuchElementException;
+
+//shared like toggles for posts and learning progress entries. a like is applied as one conditional update on
+//the server and the returned parent only carries id, userId and likeCount, so the response size does not grow
+//with the parent either. with write-behind on, accepted toggles go to the LikeWriteBuffer and null is returned
+@Service
+public class LikeService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private LikeIndex likeIndex;
+
+    @Autowired
+    private LikeWriteBuffer likeWriteBuffer;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    //parentType is the TimelineEntry type the trending scores are kept under, parentName goes into the
+    //not found message
+    public <T extends Likeable> T addLike(Class<T> parentClass, String parentType, String parentName,
+                                          String parentId, Like like) {
+        LikeWriteBuffer.OfferResult offered = likeWriteBuffer.offer(parentClass, parentId, like.getUserId(), true);
+        if (offered != LikeWriteBuffer.OfferResult.REJECTED) {
+            //a repeated like is buffered as well but must not count again
+            if (offered == LikeWriteBuffer.OfferResult.CHANGED) {
+                trendingService.recordLike(parentType, parentId, 1, new Date());
+            }
+            return null;
+        }
+        like.setCreatedAt(new Date());
+        Query notLikedYet = likeStateQuery(Criteria.where("id").is(parentId).and("likes.userId").ne(like.getUserId()));
+        Update update = new Update().push("likes", like).inc("likeCount", 1).inc("version", 1);
+        T parent = mongoTemplate.findAndModify(notLikedYet, update, FindAndModifyOptions.options().returnNew(true),
+                parentClass);
+        if (parent == null) {
+            return getLikeState(parentClass, parentName, parentId);
+        }
+        likeIndex.recordLike(parentId, like.getUserId());
+        trendingService.recordLike(parentType, parentId, 1, like.getCreatedAt());
+        //notify the owner unless they liked their own entry
+        if (!parent.getUserId().equals(like.getUserId())) {
+            notificationService.createLikeNotification(parentId, parent.getUserId(), like.getUserId());
+        }
+        return parent;
+    }
+
+    public <T extends Likeable> T removeLike(Class<T> parentClass, String parentType, String parentName,
+                                             String parentId, String userId) {
+        LikeWriteBuffer.OfferResult offered = likeWriteBuffer.offer(parentClass, parentId, userId, false);
+        if (offered != LikeWriteBuffer.OfferResult.REJECTED) {
+            if (offered == LikeWriteBuffer.OfferResult.CHANGED) {
+                trendingService.recordLike(parentType, parentId, -1, likedAt(parentClass, parentId, userId));
+            }
+            return null;
+        }
+        //the parent comes back as it was, with only the removed like, so trending can take off what it added
+        Query liked = likeStateQuery(Criteria.where("id").is(parentId).and("likes.userId").is(userId));
+        liked.fields().elemMatch("likes", Criteria.where("userId").is(userId));
+        Update update = new Update().pull("likes", new Document("userId", userId)).inc("likeCount", -1)
+                .inc("version", 1);
+        T parent = mongoTemplate.findAndModify(liked, update, parentClass);
+        if (parent == null) {
+            return getLikeState(parentClass, parentName, parentId);
+        }
+        Date likedAt = firstLikeTime(parent);
+        parent.setLikes(null);
+        parent.setLikeCount(parent.getLikeCount() - 1);
+        likeIndex.recordUnlike(parentId, userId);
+        trendingService.recordLike(parentType, parentId, -1, likedAt);
+        return parent;
+    }
+
+    //when userId liked the parent, null if the like is not stored (yet)
+    private Date likedAt(Class<? extends Likeable> parentClass, String parentId, String userId) {
+        Query query = new Query(Criteria.where("id").is(parentId).and("likes.userId").is(userId));
+        query.fields().elemMatch("likes", Criteria.where("userId").is(userId));
+        Likeable parent = mongoTemplate.findOne(query, parentClass);
+        return parent == null ? null : firstLikeTime(parent);
+    }
+
+    private static Date firstLikeTime(Likeable parent) {
+        return parent.getLikes() == null || parent.getLikes().isEmpty()
+                ? null
+                : parent.getLikes().get(0).getCreatedAt();
+    }
+
+    private Query likeStateQuery(Criteria criteria) {
+        Query query = new Query(criteria);
+        query.fields().include("userId").include("likeCount");
+        return query;
+    }
+
+    private <T extends Likeable> T getLikeState(Class<T> parentClass, String parentName, String parentId) {
+        T parent = mongoTemplate.findOne(likeStateQuery(Criteria.where("id").is(parentId)), parentClass);
+        if (parent == null) {
+            throw new NoSuchElementException(parentName + " not found");
+        }
+        return parent;
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.Like;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+//optional write-behind mode for like toggles. the buffer holds the latest desired state per
+//(parent, user), so any number of toggles inside one flush interval collapse into a single net change,
+//and all net changes are written with one unordered bulk per collection. when the buffer is full
+//offer() refuses and the caller falls back to the synchronous path. accepted toggles are applied to the
+//like index right away, which also tells the caller whether the toggle changed anything
+@Component
+public class LikeWriteBuffer {
+
+    public enum OfferResult {
+        REJECTED, CHANGED, UNCHANGED
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(LikeWriteBuffer.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final NotificationService notificationService;
+    private final LikeIndex likeIndex;
+    private final boolean enabled;
+    private final int maxPending;
+    private final Map<Key, PendingLike> pending = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+    private final Counter rejected;
+    private final Counter requeued;
+    private final Timer flushTimer;
+
+    public LikeWriteBuffer(MongoTemplate mongoTemplate,
+                           NotificationService notificationService,
+                           LikeIndex likeIndex,
+                           MeterRegistry meterRegistry,
+                           @Value("${likes.write-behind.enabled:false}") boolean enabled,
+                           @Value("${likes.write-behind.max-pending:10000}") int maxPending) {
+        this.mongoTemplate = mongoTemplate;
+        this.notificationService = notificationService;
+        this.likeIndex = likeIndex;
+        this.enabled = enabled;
+        this.maxPending = maxPending;
+        meterRegistry.gauge("likes.write_behind.pending", pending, Map::size);
+        this.coalesced = meterRegistry.counter("likes.write_behind.coalesced");
+        this.rejected = meterRegistry.counter("likes.write_behind.rejected");
+        this.requeued = meterRegistry.counter("likes.write_behind.requeued");
+        this.flushTimer = meterRegistry.timer("likes.write_behind.flush");
+    }
+
+    //REJECTED if write-behind is off or the buffer is full, the caller must then write synchronously.
+    //otherwise whether the user's like state actually changed, a repeated like is UNCHANGED
+    public OfferResult offer(Class<?> parentClass, String parentId, String userId, boolean liked) {
+        if (!enabled) {
+            return OfferResult.REJECTED;
+        }
+        Key key = new Key(parentClass, parentId, userId);
+        if (pending.size() >= maxPending && !pending.containsKey(key)) {
+            rejected.increment();
+            return OfferResult.REJECTED;
+        }
+        boolean changed = likeIndex.update(parentClass, parentId, userId, liked);
+        //the state before the first toggle of the window, later toggles in the same window keep it
+        boolean likedBefore = changed != liked;
+        boolean[] merged = new boolean[1];
+        pending.compute(key, (k, existing) -> {
+            merged[0] = existing != null;
+            return new PendingLike(liked, new Date(), existing != null ? existing.likedBefore : likedBefore);
+        });
+        if (merged[0]) {
+            coalesced.increment();
+        }
+        return changed ? OfferResult.CHANGED : OfferResult.UNCHANGED;
+    }
+
+    @Scheduled(fixedDelayString = "${likes.write-behind.flush-interval-ms:500}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        flushTimer.record(this::flushPending);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void flushPending() {
+        Map<Class<?>, Map<Key, PendingLike>> byCollection = new HashMap<>();
+        for (Key key : new ArrayList<>(pending.keySet())) {
+            PendingLike state = pending.remove(key);
+            if (state != null) {
+                byCollection.computeIfAbsent(key.parentClass, type -> new LinkedHashMap<>()).put(key, state);
+            }
+        }
+        for (Map.Entry<Class<?>, Map<Key, PendingLike>> collection : byCollection.entrySet()) {
+            try {
+                write(collection.getKey(), collection.getValue());
+            } catch (RuntimeException e) {
+                log.warn("Failed to flush {} buffered likes for {}, retrying with the next flush: {}",
+                        collection.getValue().size(), collection.getKey().getSimpleName(), e.getMessage());
+                requeue(collection.getValue());
+                continue;
+            }
+            //the likes are stored at this point, so a failure here must not requeue them and notify twice
+            try {
+                notifyOwners(collection.getKey(), collection.getValue());
+            } catch (RuntimeException e) {
+                log.warn("Failed to notify owners of {} flushed likes for {}: {}",
+                        collection.getValue().size(), collection.getKey().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    //the guarded updates make writing a change twice harmless, so the whole batch goes back. a toggle that
+    //arrived meanwhile wins, but keeps the state from before the failed batch for the notification decision
+    private void requeue(Map<Key, PendingLike> failed) {
+        failed.forEach((key, state) -> pending.merge(key, state,
+                (newer, old) -> new PendingLike(newer.liked, newer.at, old.likedBefore)));
+        requeued.increment(failed.size());
+    }
+
+    //the same guarded $push / $pull as the synchronous path, so a net "like" for an already liked parent
+    //and a net "unlike" for a parent that was never liked are no-ops
+    private void write(Class<?> parentClass, Map<Key, PendingLike> changes) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, parentClass);
+        for (Map.Entry<Key, PendingLike> change : changes.entrySet()) {
+            Key key = change.getKey();
+            if (change.getValue().liked) {
+                bulk.updateOne(new Query(Criteria.where("id").is(key.parentId).and("likes.userId").ne(key.userId)),
+                        new Update().push("likes", new Like(key.userId, change.getValue().at)).inc("likeCount", 1)
+                                .inc("version", 1));
+            } else {
+                bulk.updateOne(new Query(Criteria.where("id").is(key.parentId).and("likes.userId").is(key.userId)),
+                        new Update().pull("likes", new Document("userId", key.userId)).inc("likeCount", -1)
+                                .inc("version", 1));
+            }
+        }
+        bulk.execute();
+    }
+
+    //only a like that turns "not liked" into "liked" over the window notifies, going by the like index state
+    //before the window's first toggle. owners of those parents are resolved with one query
+    private void notifyOwners(Class<?> parentClass, Map<Key, PendingLike> changes) {
+        Set<String> likedParentIds = new HashSet<>();
+        changes.forEach((key, state) -> {
+            if (state.isNewLike()) {
+                likedParentIds.add(key.parentId);
+            }
+        });
+        if (likedParentIds.isEmpty()) {
+            return;
+        }
+        Query ownersQuery = new Query(Criteria.where("id").in(likedParentIds));
+        ownersQuery.fields().include("userId");
+        Map<String, String> owners = new HashMap<>();
+        for (Document parent : mongoTemplate.query(parentClass).as(Document.class).matching(ownersQuery).all()) {
+            owners.put(parent.get("_id").toString(), parent.getString("userId"));
+        }
+        changes.forEach((key, state) -> {
+            String ownerId = owners.get(key.parentId);
+            if (state.isNewLike() && ownerId != null && !ownerId.equals(key.userId)) {
+                notificationService.createLikeNotification(key.parentId, ownerId, key.userId);
+            }
+        });
+    }
+
+    private static final class Key {
+        private final Class<?> parentClass;
+        private final String parentId;
+        private final String userId;
+
+        private Key(Class<?> parentClass, String parentId, String userId) {
+            this.parentClass = parentClass;
+            this.parentId = parentId;
+            this.userId = userId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return parentClass.equals(other.parentClass) && parentId.equals(other.parentId)
+                    && userId.equals(other.userId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(parentClass, parentId, userId);
+        }
+    }
+
+    private static final class PendingLike {
+        private final boolean liked;
+        private final Date at;
+        private final boolean likedBefore;
+
+        private PendingLike(boolean liked, Date at, boolean likedBefore) {
+            this.liked = liked;
+            this.at = at;
+            this.likedBefore = likedBefore;
+        }
+
+        private boolean isNewLike() {
+            return liked && !likedBefore;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.MediaUpload;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.regex.Pattern;
+
+//content-addressed media store on the local disk. a file is named after the sha-256 of its bytes,
+//so the same upload is stored once, a stored file never changes and its hash doubles as a strong etag.
+//files live under <storage-dir>/<first two hex chars>/<sha256>.<ext>, derived variants such as thumbnails
+//sit next to them as <sha256>_w<width>.<ext>
+@Service
+public class MediaService {
+
+    public static final String URL_PREFIX = "/api/media/";
+
+    private static final Pattern MEDIA_ID = Pattern.compile("[0-9a-f]{64}(_w[0-9]{1,4})?\\.[a-z0-9]{1,8}");
+
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "image/jpeg", "jpg",
+            "image/png", "png",
+            "image/gif", "gif",
+            "image/webp", "webp",
+            "video/mp4", "mp4",
+            "video/webm", "webm",
+            "video/ogg", "ogv",
+            "video/quicktime", "mov");
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Path root;
+    private final long maxBytes;
+
+    public MediaService(@Value("${media.storage-dir:media}") String storageDir,
+                        @Value("${media.max-bytes:104857600}") long maxBytes) throws IOException {
+        this.root = Paths.get(storageDir).toAbsolutePath().normalize();
+        this.maxBytes = maxBytes;
+        Files.createDirectories(root);
+    }
+
+    public MediaUpload store(MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("File is empty");
+        }
+        String contentType = file.getContentType();
+        if (!EXTENSIONS.containsKey(contentType)) {
+            throw new IllegalArgumentException("Unsupported media type");
+        }
+        try (InputStream in = file.getInputStream()) {
+            return store(in, contentType);
+        }
+    }
+
+    //the upload is written to a temp file while it is hashed, then moved into place under its hash
+    private MediaUpload store(InputStream in, String contentType) throws IOException {
+        Path temp = Files.createTempFile(root, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (DigestInputStream hashing = new DigestInputStream(in, digest);
+                 OutputStream out = Files.newOutputStream(temp)) {
+                size = copyLimited(hashing, out);
+            }
+            String id = HexFormat.of().formatHex(digest.digest()) + "." + EXTENSIONS.get(contentType);
+            Path target = resolve(id);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    //someone stored the same bytes at the same time
+                }
+            }
+            return new MediaUpload(id, URL_PREFIX + id, contentType, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private long copyLimited(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            total += read;
+            if (total > maxBytes) {
+                throw new IllegalArgumentException("File is too large");
+            }
+            out.write(buffer, 0, read);
+        }
+        return total;
+    }
+
+    //path of a stored file, or null if the id is malformed or nothing is stored under it
+    public Path find(String id) {
+        if (id == null || !MEDIA_ID.matcher(id).matches()) {
+            return null;
+        }
+        Path path = resolve(id);
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    //stores a derived file under its own id, readers see either nothing or the complete file
+    public void storeDerivative(String id, byte[] content) throws IOException {
+        Path target = resolve(id);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(root, "derived-", ".tmp");
+        try {
+            Files.write(temp, content);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public static String derivativeId(String sourceId, int width, String extension) {
+        return sourceId.substring(0, sourceId.indexOf('.')) + "_w" + width + "." + extension;
+    }
+
+    //id of the stored file a mediaUrls entry points to, or null for external urls
+    public String mediaIdOf(String entry) {
+        if (entry == null) {
+            return null;
+        }
+        String url = entry;
+        if (entry.startsWith("{")) {
+            try {
+                JsonNode dataUrl = objectMapper.readTree(entry).get("dataUrl");
+                url = dataUrl == null ? null : dataUrl.asText();
+            } catch (JsonProcessingException e) {
+                return null;
+            }
+        }
+        if (url == null || !url.startsWith(URL_PREFIX)) {
+            return null;
+        }
+        String id = url.substring(URL_PREFIX.length());
+        return MEDIA_ID.matcher(id).matches() ? id : null;
+    }
+
+    public static String etag(String id) {
+        return "\"" + id.substring(0, id.indexOf('.')) + "\"";
+    }
+
+    public static MediaType contentType(String id) {
+        return MediaTypeFactory.getMediaType(id).orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
+
+    private Path resolve(String id) {
+        return root.resolve(id.substring(0, 2)).resolve(id);
+    }
+
+    //posts used to carry their media inline as base64 data urls, either bare or inside the
+    //{"dataUrl", "type", "fileType"} json the frontend sends. those are stored here and replaced by a media url,
+    //data urls that are not base64 or of a type the store does not know stay inline as they always did
+    public List<String> externalizeDataUrls(List<String> mediaUrls) {
+        if (mediaUrls == null) {
+            return null;
+        }
+        List<String> result = new ArrayList<>(mediaUrls.size());
+        for (String entry : mediaUrls) {
+            result.add(externalize(entry));
+        }
+        return result;
+    }
+
+    private String externalize(String entry) {
+        if (entry == null) {
+            return null;
+        }
+        if (entry.startsWith("data:")) {
+            String url = storeDataUrl(entry);
+            return url != null ? url : entry;
+        }
+        if (!entry.startsWith("{")) {
+            return entry;
+        }
+        try {
+            JsonNode node = objectMapper.readTree(entry);
+            JsonNode dataUrl = node.get("dataUrl");
+            if (node instanceof ObjectNode object && dataUrl != null && dataUrl.asText().startsWith("data:")) {
+                String url = storeDataUrl(dataUrl.asText());
+                if (url == null) {
+                    return entry;
+                }
+                object.put("dataUrl", url);
+                return objectMapper.writeValueAsString(object);
+            }
+            return entry;
+        } catch (JsonProcessingException e) {
+            return entry;
+        }
+    }
+
+    //null if the data url is not something the store takes
+    private String storeDataUrl(String dataUrl) {
+        int comma = dataUrl.indexOf(',');
+        String header = comma > 0 ? dataUrl.substring(5, comma) : "";
+        if (!header.endsWith(";base64")) {
+            return null;
+        }
+        String contentType = header.substring(0, header.length() - ";base64".length());
+        if (!EXTENSIONS.containsKey(contentType)) {
+            return null;
+        }
+        byte[] encoded = dataUrl.substring(comma + 1).getBytes(StandardCharsets.US_ASCII);
+        try (InputStream in = Base64.getMimeDecoder().wrap(new ByteArrayInputStream(encoded))) {
+            return store(in, contentType).getUrl();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.Notification;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+//folds like and comment notifications into one rolling document per (recipient, post, type, time window):
+//"Alice and 41 others liked your post". a batch is first grouped in memory, then every group becomes a single
+//pipeline upsert that bumps count, keeps the newest maxTriggers distinct users and rewrites the message from
+//the new count. the ids of the last maxAppliedIds events are kept on the group so storing an event twice is
+//a no-op, and the document stays the same size however popular the post gets
+@Component
+public class NotificationCoalescer {
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final long windowMillis;
+    private final int maxTriggers;
+    private final int maxAppliedIds;
+
+    public NotificationCoalescer(MongoTemplate mongoTemplate,
+                                 @Value("${notifications.coalesce.enabled:true}") boolean enabled,
+                                 @Value("${notifications.coalesce.window-minutes:1440}") long windowMinutes,
+                                 @Value("${notifications.coalesce.max-triggers:3}") int maxTriggers,
+                                 @Value("${notifications.coalesce.max-applied-ids:200}") int maxAppliedIds) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.windowMillis = windowMinutes * 60_000L;
+        this.maxTriggers = maxTriggers;
+        this.maxAppliedIds = maxAppliedIds;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    //what a batch changed: the stored groups and, per recipient, how many groups became unread
+    static final class Result {
+        private final List<Notification> groups;
+        private final Map<String, Long> newlyUnread;
+
+        private Result(List<Notification> groups, Map<String, Long> newlyUnread) {
+            this.groups = groups;
+            this.newlyUnread = newlyUnread;
+        }
+
+        List<Notification> getGroups() {
+            return groups;
+        }
+
+        Map<String, Long> getNewlyUnread() {
+            return newlyUnread;
+        }
+    }
+
+    //names maps trigger user ids to display names, events whose user is unknown are not passed in
+    Result write(List<NotificationEvent> events, Map<String, String> names) {
+        Map<String, List<NotificationEvent>> groups = new LinkedHashMap<>();
+        for (NotificationEvent event : events) {
+            groups.computeIfAbsent(groupKey(event), key -> new ArrayList<>()).add(event);
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Notification.class);
+        for (Map.Entry<String, List<NotificationEvent>> group : groups.entrySet()) {
+            List<NotificationEvent> grouped = group.getValue();
+            NotificationEvent latest = grouped.get(grouped.size() - 1);
+            Query query = new Query(Criteria.where("userId").is(latest.getOwnerId())
+                    .and("groupKey").is(group.getKey())
+                    .and("postId").is(latest.getPostId())
+                    .and("type").is(latest.getType()));
+            bulk.upsert(query, update(grouped, names));
+        }
+        bulk.execute();
+        return read(groups);
+    }
+
+    //one indexed read of the batch's groups. a group that was created or went from read to unread carries
+    //the id of the event that did it in unreadToken, which also holds when a retried batch finds it already
+    //applied, so the unread counter is bumped exactly for those. a group the user has read since then is not
+    //counted again when one of its old events is replayed
+    private Result read(Map<String, List<NotificationEvent>> groups) {
+        Set<String> owners = new HashSet<>();
+        Map<String, Set<String>> eventIds = new HashMap<>();
+        for (Map.Entry<String, List<NotificationEvent>> group : groups.entrySet()) {
+            for (NotificationEvent event : group.getValue()) {
+                owners.add(event.getOwnerId());
+                eventIds.computeIfAbsent(event.getOwnerId() + "|" + group.getKey(), key -> new HashSet<>())
+                        .add(event.getId());
+            }
+        }
+        Query query = new Query(Criteria.where("userId").in(owners).and("groupKey").in(groups.keySet()));
+        query.fields().exclude("appliedIds");
+        String collection = mongoTemplate.getCollectionName(Notification.class);
+        List<Notification> stored = new ArrayList<>();
+        Map<String, Long> newlyUnread = new HashMap<>();
+        for (Document document : mongoTemplate.find(query, Document.class, collection)) {
+            Set<String> ids = eventIds.get(document.getString("userId") + "|" + document.getString("groupKey"));
+            if (ids == null) {
+                continue;
+            }
+            if (Boolean.FALSE.equals(document.getBoolean("read")) && ids.contains(document.getString("unreadToken"))) {
+                newlyUnread.merge(document.getString("userId"), 1L, Long::sum);
+            }
+            stored.add(mongoTemplate.getConverter().read(Notification.class, document));
+        }
+        return new Result(stored, newlyUnread);
+    }
+
+    private String groupKey(NotificationEvent event) {
+        long window = event.getCreatedAt().getTime() / windowMillis;
+        return event.getType() + ":" + event.getPostId() + ":" + window;
+    }
+
+    //the events of the group are embedded as a literal and filtered against appliedIds first, so an event that
+    //was already folded in (journal replay, retried batch) changes nothing. only the fresh ones bump count,
+    //mark the group unread, move createdAt and rewrite the message
+    private AggregationUpdate update(List<NotificationEvent> grouped, Map<String, String> names) {
+        List<NotificationEvent> ordered = new ArrayList<>(grouped);
+        ordered.sort(Comparator.comparing(NotificationEvent::getCreatedAt));
+        List<Document> events = new ArrayList<>(ordered.size());
+        for (NotificationEvent event : ordered) {
+            events.add(new Document("id", event.getId())
+                    .append("userId", event.getTriggerUserId())
+                    .append("userName", names.get(event.getTriggerUserId()))
+                    .append("content", event.getCommentContent())
+                    .append("createdAt", event.getCreatedAt()));
+        }
+        //user supplied strings stay inside $literal so a leading '$' is never read as a field path
+        Document selectFresh = new Document("$set", new Document("_fresh", new Document("$filter",
+                new Document("input", new Document("$literal", events))
+                        .append("cond", new Document("$not", List.of(new Document("$in", List.of("$$this.id",
+                                new Document("$ifNull", List.of("$appliedIds", List.of()))))))))));
+        Document selectLatest = new Document("$set", new Document("_latest",
+                new Document("$arrayElemAt", List.of("$_fresh", -1))));
+
+        Document hasFresh = new Document("$gt", List.of(new Document("$size", "$_fresh"), 0));
+        //a new group has no read field, which also counts as turning unread
+        Document turnsUnread = new Document("$and", List.of(hasFresh, new Document("$ne", List.of("$read", false))));
+        //newest last, one entry per user
+        Document recentTriggers = new Document("$slice", List.of(new Document("$reduce",
+                new Document("input", "$_fresh")
+                        .append("initialValue", new Document("$ifNull", List.of("$recentTriggers", List.of())))
+                        .append("in", new Document("$concatArrays", List.of(
+                                new Document("$filter", new Document("input", "$$value").append("as", "t")
+                                        .append("cond", new Document("$ne", List.of("$$t.userId", "$$this.userId")))),
+                                List.of(new Document("userId", "$$this.userId")
+                                        .append("userName", "$$this.userName")))))), -maxTriggers));
+        Document appliedIds = new Document("$slice", List.of(new Document("$concatArrays", List.of(
+                new Document("$ifNull", List.of("$appliedIds", List.of())), "$_fresh.id")), -maxAppliedIds));
+        Document setCounters = new Document("$set", new Document()
+                .append("count", new Document("$add", List.of(new Document("$ifNull", List.of("$count", 0)),
+                        new Document("$size", "$_fresh"))))
+                .append("recentTriggers", recentTriggers)
+                .append("appliedIds", appliedIds)
+                .append("triggerUserId", when(hasFresh, "$_latest.userId", "$triggerUserId"))
+                .append("read", when(hasFresh, false, "$read"))
+                .append("unreadToken", when(turnsUnread, "$_latest.id", "$unreadToken"))
+                .append("createdAt", when(hasFresh,
+                        new Document("$max", List.of("$createdAt", "$_latest.createdAt")), "$createdAt")));
+
+        //separate stage, so $count already holds the new total
+        Object action = NotificationEvent.TYPE_LIKE.equals(grouped.get(0).getType())
+                ? " liked your post."
+                : new Document("$concat", List.of(" commented on your post: ", "$_latest.content"));
+        Document others = new Document("$subtract", List.of("$count", 1));
+        Document message = new Document("$cond", List.of(
+                new Document("$gt", List.of("$count", 1)),
+                new Document("$concat", List.of("$_latest.userName", " and ", new Document("$toString", others),
+                        new Document("$cond", List.of(new Document("$eq", List.of(others, 1)), " other", " others")),
+                        action)),
+                new Document("$concat", List.of("$_latest.userName", action))));
+        Document setMessage = new Document("$set", new Document("message", when(hasFresh, message, "$message")));
+        Document cleanUp = new Document("$unset", List.of("_fresh", "_latest"));
+
+        return AggregationUpdate.from(List.of(context -> selectFresh, context -> selectLatest,
+                context -> setCounters, context -> setMessage, context -> cleanUp));
+    }
+
+    private static Document when(Document condition, Object then, Object otherwise) {
+        return new Document("$cond", List.of(condition, then, otherwise));
+    }
+}
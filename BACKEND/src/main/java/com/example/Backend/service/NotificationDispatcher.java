@@ -0,0 +1,314 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.Notification;
+import com.example.Backend.model.User;
+import com.example.Backend.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+//moves notification writes off the request thread. events go onto a bounded queue and one worker takes
+//them off in batches: the trigger users of a whole batch are looked up with a single query and the
+//notifications are stored with one insertMany. what happens when the queue is full is configurable:
+//BLOCK waits up to offer-timeout-ms and then drops, DROP drops right away, CALLER_RUNS writes the
+//notification on the calling thread as before. with the journal enabled every event is made durable on local
+//disk before it is queued and acknowledged once stored, so a restart replays whatever was still queued.
+//a batch that cannot be stored is retried with a doubling pause; after retry-attempts it is dropped and
+//acknowledged, so one bad batch cannot keep every later journal segment on disk
+@Component
+public class NotificationDispatcher {
+
+    public enum OverflowPolicy {
+        BLOCK, DROP, CALLER_RUNS
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final UserRepository userRepository;
+    private final NotificationJournal journal;
+    private final NotificationCoalescer coalescer;
+    private final NotificationStream stream;
+    private final UnreadCounterService unreadCounters;
+    private final BlockingQueue<NotificationEvent> queue;
+    private final int batchSize;
+    private final OverflowPolicy overflowPolicy;
+    private final long offerTimeoutMillis;
+    private final int retryAttempts;
+    private final long retryBackoffMillis;
+    private final long retryMaxBackoffMillis;
+    private final Counter enqueued;
+    private final Counter dropped;
+    private final Counter written;
+    private final Counter skipped;
+    private final Counter retried;
+    private final Timer batchTimer;
+    private volatile boolean running = true;
+    private Thread worker;
+
+    public NotificationDispatcher(MongoTemplate mongoTemplate,
+                                  UserRepository userRepository,
+                                  NotificationJournal journal,
+                                  NotificationCoalescer coalescer,
+                                  NotificationStream stream,
+                                  UnreadCounterService unreadCounters,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${notifications.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${notifications.batch-size:200}") int batchSize,
+                                  @Value("${notifications.overflow-policy:CALLER_RUNS}") OverflowPolicy overflowPolicy,
+                                  @Value("${notifications.offer-timeout-ms:50}") long offerTimeoutMillis,
+                                  @Value("${notifications.retry.attempts:10}") int retryAttempts,
+                                  @Value("${notifications.retry.backoff-ms:200}") long retryBackoffMillis,
+                                  @Value("${notifications.retry.max-backoff-ms:30000}") long retryMaxBackoffMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.userRepository = userRepository;
+        this.journal = journal;
+        this.coalescer = coalescer;
+        this.stream = stream;
+        this.unreadCounters = unreadCounters;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.retryAttempts = retryAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.retryMaxBackoffMillis = retryMaxBackoffMillis;
+        meterRegistry.gauge("notifications.queue.depth", queue, BlockingQueue::size);
+        this.enqueued = meterRegistry.counter("notifications.enqueued");
+        this.dropped = meterRegistry.counter("notifications.dropped");
+        this.written = meterRegistry.counter("notifications.written");
+        this.skipped = meterRegistry.counter("notifications.skipped");
+        this.retried = meterRegistry.counter("notifications.retried");
+        this.batchTimer = meterRegistry.timer("notifications.batch");
+    }
+
+    //the worker starts first so replayed events go through the queue and get the same retries as new ones
+    @PostConstruct
+    public void start() throws IOException {
+        worker = new Thread(this::drainLoop, "notification-dispatcher");
+        worker.setDaemon(true);
+        worker.start();
+        journal.open(this::requeueReplayed, batchSize);
+    }
+
+    //whatever is still queued at shutdown is written before the context closes. the worker is not
+    //interrupted, that would abort an insert in flight; it sees running within its one second poll
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+        List<NotificationEvent> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            try {
+                write(rest);
+            } catch (RuntimeException e) {
+                //still journaled, the next start replays them
+                log.warn("Could not store {} notifications at shutdown: {}", rest.size(), e.getMessage());
+            }
+        }
+    }
+
+    void submit(NotificationEvent event) {
+        if (journal.isEnabled()) {
+            try {
+                journal.append(event);
+            } catch (IOException e) {
+                log.warn("Notification {} is not journaled: {}", event.getId(), e.getMessage());
+            }
+        }
+        boolean accepted;
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            try {
+                accepted = queue.offer(event, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                accepted = false;
+            }
+        } else {
+            accepted = queue.offer(event);
+        }
+        if (accepted) {
+            enqueued.increment();
+        } else if (overflowPolicy == OverflowPolicy.CALLER_RUNS) {
+            try {
+                write(List.of(event));
+            } catch (RuntimeException e) {
+                //no retries on the request thread, the event is given up like a failed batch
+                giveUp(List.of(event), e);
+            }
+        } else {
+            dropped.increment();
+            //dropping is the configured policy, the event must not come back on the next start either
+            journal.acknowledge(List.of(event));
+        }
+    }
+
+    //events left in the journal by the previous run; put waits while the worker catches up
+    private void requeueReplayed(List<NotificationEvent> events) {
+        try {
+            for (NotificationEvent event : events) {
+                queue.put(event);
+            }
+        } catch (InterruptedException e) {
+            //whatever is not queued stays in the journal for the next start
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        List<NotificationEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                NotificationEvent first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                batchTimer.record(() -> writeWithRetry(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeWithRetry(List<NotificationEvent> batch) {
+        long backoff = retryBackoffMillis;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                write(batch);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= retryAttempts) {
+                    giveUp(batch, e);
+                    return;
+                }
+                log.warn("Storing {} notifications failed, attempt {} of {}: {}", batch.size(), attempt,
+                        retryAttempts, e.getMessage());
+                retried.increment();
+                if (!pause(backoff)) {
+                    //stopping: the batch stays in the journal and is replayed on the next start
+                    return;
+                }
+                backoff = Math.min(backoff * 2, retryMaxBackoffMillis);
+            }
+        }
+    }
+
+    private void giveUp(List<NotificationEvent> events, RuntimeException e) {
+        log.error("Dropped {} notifications: {}", events.size(), e.getMessage());
+        dropped.increment(events.size());
+        journal.acknowledge(events);
+    }
+
+    //false when the dispatcher stops during the pause
+    private boolean pause(long millis) {
+        long deadline = System.currentTimeMillis() + millis;
+        try {
+            while (running) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return true;
+                }
+                Thread.sleep(Math.min(remaining, 1000));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    private void write(List<NotificationEvent> events) {
+        Set<String> triggerIds = new HashSet<>();
+        for (NotificationEvent event : events) {
+            triggerIds.add(event.getTriggerUserId());
+        }
+        Map<String, String> names = new HashMap<>();
+        for (User user : userRepository.findAllById(triggerIds)) {
+            names.put(user.getId(), user.getName());
+        }
+        List<NotificationEvent> known = new ArrayList<>(events.size());
+        for (NotificationEvent event : events) {
+            if (names.containsKey(event.getTriggerUserId())) {
+                known.add(event);
+            } else {
+                //the user was deleted after liking or commenting
+                skipped.increment();
+            }
+        }
+        if (!known.isEmpty()) {
+            List<Notification> stored;
+            Map<String, Long> newlyUnread;
+            if (coalescer.isEnabled()) {
+                NotificationCoalescer.Result result = coalescer.write(known, names);
+                stored = result.getGroups();
+                newlyUnread = result.getNewlyUnread();
+            } else {
+                List<Notification> notifications = new ArrayList<>(known.size());
+                for (NotificationEvent event : known) {
+                    notifications.add(event.toNotification(names.get(event.getTriggerUserId())));
+                }
+                stored = insertIgnoringDuplicates(notifications);
+                newlyUnread = new HashMap<>();
+                for (Notification notification : stored) {
+                    newlyUnread.merge(notification.getUserId(), 1L, Long::sum);
+                }
+            }
+            written.increment(known.size());
+            unreadCounters.adjust(newlyUnread);
+            List<Notification> watched = new ArrayList<>();
+            for (Notification notification : stored) {
+                if (stream.isSubscribed(notification.getUserId())) {
+                    watched.add(notification);
+                }
+            }
+            if (!watched.isEmpty()) {
+                stream.publish(watched);
+            }
+        }
+        journal.acknowledge(events);
+    }
+
+    //ids are fixed per event, a duplicate means the event was stored before the journal learned about it.
+    //returns the notifications this call actually inserted
+    private List<Notification> insertIgnoringDuplicates(List<Notification> notifications) {
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Notification.class).insert(notifications)
+                    .execute();
+            return notifications;
+        } catch (BulkOperationException e) {
+            boolean onlyDuplicates = e.getErrors().stream().allMatch(error -> error.getCode() == 11000);
+            if (!onlyDuplicates) {
+                throw e;
+            }
+            Set<Integer> duplicates = new HashSet<>();
+            e.getErrors().forEach(error -> duplicates.add(error.getIndex()));
+            List<Notification> inserted = new ArrayList<>(notifications.size());
+            for (int i = 0; i < notifications.size(); i++) {
+                if (!duplicates.contains(i)) {
+                    inserted.add(notifications.get(i));
+                }
+            }
+            return inserted;
+        }
+    }
+}
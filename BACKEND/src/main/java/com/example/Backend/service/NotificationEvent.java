@@ -0,0 +1,91 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.Notification;
+import org.bson.types.ObjectId;
+
+import java.util.Date;
+
+//a notification that still needs the trigger user's name before it can be stored. the id is fixed when the
+//event is created, so storing the same event twice (e.g. on journal replay) cannot create a duplicate
+final class NotificationEvent {
+    static final String TYPE_LIKE = "LIKE";
+    static final String TYPE_COMMENT = "COMMENT";
+
+    private final String id;
+    private final String type;
+    private final String postId;
+    private final String ownerId;
+    private final String triggerUserId;
+    private final String commentContent;
+    private final Date createdAt;
+    private long sequence = -1;
+
+    NotificationEvent(String id, String type, String postId, String ownerId, String triggerUserId,
+                      String commentContent, Date createdAt) {
+        this.id = id;
+        this.type = type;
+        this.postId = postId;
+        this.ownerId = ownerId;
+        this.triggerUserId = triggerUserId;
+        this.commentContent = commentContent;
+        this.createdAt = createdAt;
+    }
+
+    static NotificationEvent like(String postId, String ownerId, String triggerUserId) {
+        return new NotificationEvent(new ObjectId().toHexString(), TYPE_LIKE, postId, ownerId, triggerUserId, null,
+                new Date());
+    }
+
+    static NotificationEvent comment(String postId, String ownerId, String triggerUserId, String content) {
+        return new NotificationEvent(new ObjectId().toHexString(), TYPE_COMMENT, postId, ownerId, triggerUserId,
+                content, new Date());
+    }
+
+    String getId() {
+        return id;
+    }
+
+    String getType() {
+        return type;
+    }
+
+    String getPostId() {
+        return postId;
+    }
+
+    String getOwnerId() {
+        return ownerId;
+    }
+
+    String getTriggerUserId() {
+        return triggerUserId;
+    }
+
+    String getCommentContent() {
+        return commentContent;
+    }
+
+    Date getCreatedAt() {
+        return createdAt;
+    }
+
+    //position in the notification journal, -1 if the event was not journaled
+    long getSequence() {
+        return sequence;
+    }
+
+    void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    //createdAt is the time of the like or comment, not of the batch that stores it
+    Notification toNotification(String triggerUserName) {
+        String message = TYPE_LIKE.equals(type)
+                ? triggerUserName + " liked your post."
+                : triggerUserName + " commented on your post: " + commentContent;
+        Notification notification = new Notification(ownerId, type, postId, triggerUserId, message);
+        notification.setId(id);
+        notification.setCreatedAt(createdAt);
+        return notification;
+    }
+}
@@ -0,0 +1,423 @@
+package com.example.Backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+//local write-ahead journal for notification events that are queued but not yet stored in mongo.
+//events are appended to memory-mapped segment files of a fixed size; a full segment is closed and a new one
+//started. appenders do not fsync themselves: a flusher thread forces the active segment once per commit
+//interval and releases every appender whose record that force covered (group commit). once the dispatcher
+//has stored an event it is acknowledged, and a closed segment is deleted when all of its events are.
+//the highest sequence up to which everything is acknowledged is kept in a small mapped checkpoint file, so
+//on startup only the events after it are replayed and fully acknowledged segments are deleted. a record
+//with a bad checksum ends its segment (torn write)
+//
+//record layout: int payload length (0 marks the end of a segment), int crc32 of the payload, payload.
+//sequences are not stored, a segment is named after its first sequence and its records follow without gaps
+@Component
+public class NotificationJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationJournal.class);
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_BYTES = 8;
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentBytes;
+    private final long commitIntervalMillis;
+    private final long commitTimeoutMillis;
+    private final Timer commitTimer;
+
+    private final Object appendLock = new Object();
+    private final Object durableLock = new Object();
+    private final Deque<Segment> closedSegments = new ArrayDeque<>();
+    private final ConcurrentSkipListSet<Long> unacknowledged = new ConcurrentSkipListSet<>();
+    private Segment active;
+    //sequence, crc32 of the sequence
+    private MappedByteBuffer checkpoint;
+    private long checkpointSequence;
+    private long appendedSequence;
+    private volatile long durableSequence;
+    private volatile boolean running;
+    private Thread flusher;
+
+    public NotificationJournal(MeterRegistry meterRegistry,
+                               @Value("${notifications.journal.enabled:true}") boolean enabled,
+                               @Value("${notifications.journal.dir:journal/notifications}") String directory,
+                               @Value("${notifications.journal.segment-bytes:16777216}") int segmentBytes,
+                               @Value("${notifications.journal.commit-interval-ms:5}") long commitIntervalMillis,
+                               @Value("${notifications.journal.commit-timeout-ms:1000}") long commitTimeoutMillis) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        this.segmentBytes = segmentBytes;
+        this.commitIntervalMillis = commitIntervalMillis;
+        this.commitTimeoutMillis = commitTimeoutMillis;
+        this.commitTimer = meterRegistry.timer("notifications.journal.commit");
+        meterRegistry.gauge("notifications.journal.unacknowledged", unacknowledged, Set::size);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    //hands every event left from the previous run to the consumer, then opens a fresh segment for new events.
+    //replayed events stay unacknowledged until the consumer's caller acknowledges them
+    void open(Consumer<List<NotificationEvent>> replay, int batchSize) throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        openCheckpoint();
+        //the dispatcher's worker already runs and acknowledges replayed events while later ones are still being
+        //read, so the skip and delete decisions use the checkpoint as it was on disk
+        long replayFrom = checkpointSequence;
+        synchronized (appendLock) {
+            //sequences continue after the checkpoint even when every segment was deleted
+            appendedSequence = replayFrom;
+        }
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .sorted()
+                    .toList();
+        }
+        long replayed = 0;
+        for (Path file : files) {
+            Segment segment = new Segment(file, sequenceOf(file));
+            List<NotificationEvent> batch = new ArrayList<>(batchSize);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                NotificationEvent event;
+                while ((event = readRecord(buffer)) != null) {
+                    event.setSequence(segment.lastSequence + 1);
+                    segment.lastSequence = event.getSequence();
+                    boolean stored = event.getSequence() <= replayFrom;
+                    //pending before appendedSequence moves past it, so a concurrent acknowledge never computes
+                    //a checkpoint beyond an event that is not queued yet
+                    synchronized (appendLock) {
+                        if (!stored) {
+                            unacknowledged.add(event.getSequence());
+                        }
+                        appendedSequence = Math.max(appendedSequence, event.getSequence());
+                    }
+                    if (stored) {
+                        //stored before the last checkpoint
+                        continue;
+                    }
+                    batch.add(event);
+                    if (batch.size() == batchSize) {
+                        replay.accept(batch);
+                        batch = new ArrayList<>(batchSize);
+                    }
+                    replayed++;
+                }
+            }
+            if (!batch.isEmpty()) {
+                replay.accept(batch);
+            }
+            if (segment.lastSequence <= replayFrom) {
+                Files.deleteIfExists(file);
+            } else {
+                synchronized (appendLock) {
+                    closedSegments.add(segment);
+                }
+            }
+        }
+        if (replayed > 0) {
+            log.info("Replayed {} notification events from {} journal segments", replayed, files.size());
+        }
+        synchronized (appendLock) {
+            durableSequence = appendedSequence;
+            active = newSegment(appendedSequence + 1);
+        }
+        deleteAcknowledgedSegments();
+
+        running = true;
+        flusher = new Thread(this::flushLoop, "notification-journal");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    //appends the event and returns once it is on disk, or after commit-timeout-ms at the latest
+    void append(NotificationEvent event) throws IOException {
+        byte[] payload = encode(event);
+        //room for the record plus the zero length that ends the segment
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (recordBytes + 4 > segmentBytes) {
+            throw new IOException("Notification event does not fit into a journal segment");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        long sequence;
+        synchronized (appendLock) {
+            sequence = appendedSequence + 1;
+            if (active.buffer.remaining() < recordBytes + 4) {
+                roll(sequence);
+            }
+            active.buffer.putInt(payload.length);
+            active.buffer.putInt((int) crc.getValue());
+            active.buffer.put(payload);
+            event.setSequence(sequence);
+            active.lastSequence = sequence;
+            appendedSequence = sequence;
+            unacknowledged.add(sequence);
+            appendLock.notifyAll();
+        }
+        awaitDurable(sequence);
+    }
+
+    //the dispatcher stored these events, closed segments holding nothing else can go
+    void acknowledge(Collection<NotificationEvent> events) {
+        boolean any = false;
+        for (NotificationEvent event : events) {
+            if (event.getSequence() >= 0) {
+                any |= unacknowledged.remove(event.getSequence());
+            }
+        }
+        if (any) {
+            deleteAcknowledgedSegments();
+        }
+    }
+
+    //the sequence up to which nothing is pending any more, used as the replay start
+    long acknowledgedSequence() {
+        synchronized (appendLock) {
+            return unacknowledged.isEmpty() ? appendedSequence : unacknowledged.first() - 1;
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(5));
+        synchronized (appendLock) {
+            active.buffer.force();
+        }
+        //nothing acknowledged in this run is replayed on the next start
+        writeCheckpoint(acknowledgedSequence());
+        checkpoint.force();
+    }
+
+    private void awaitDurable(long sequence) {
+        long deadline = System.currentTimeMillis() + commitTimeoutMillis;
+        synchronized (durableLock) {
+            while (durableSequence < sequence) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    log.warn("Journal commit of notification {} timed out", sequence);
+                    return;
+                }
+                try {
+                    durableLock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void flushLoop() {
+        while (running) {
+            try {
+                synchronized (appendLock) {
+                    while (appendedSequence == durableSequence && running) {
+                        appendLock.wait();
+                    }
+                }
+                //let more appenders join this commit
+                Thread.sleep(commitIntervalMillis);
+                MappedByteBuffer buffer;
+                long covered;
+                synchronized (appendLock) {
+                    buffer = active.buffer;
+                    covered = appendedSequence;
+                }
+                commitTimer.record(() -> {
+                    buffer.force();
+                });
+                synchronized (durableLock) {
+                    durableSequence = Math.max(durableSequence, covered);
+                    durableLock.notifyAll();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Notification journal commit failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    //called with appendLock held; the full segment is forced here so the flusher only ever deals with one
+    private void roll(long nextSequence) throws IOException {
+        active.buffer.force();
+        active.buffer = null;
+        closedSegments.add(active);
+        active = newSegment(nextSequence);
+    }
+
+    private Segment newSegment(long firstSequence) throws IOException {
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        Segment segment = new Segment(file, firstSequence);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            //the mapping stays valid after the channel is closed
+            segment.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+        return segment;
+    }
+
+    private void openCheckpoint() throws IOException {
+        try (FileChannel channel = FileChannel.open(directory.resolve(CHECKPOINT_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            checkpoint = channel.map(FileChannel.MapMode.READ_WRITE, 0, 12);
+        }
+        long sequence = checkpoint.getLong(0);
+        //a new file reads as zero, a torn checkpoint write means replaying from the first segment
+        checkpointSequence = checksum(sequence) == checkpoint.getInt(8) ? sequence : 0;
+    }
+
+    //not forced here: a checkpoint lost in a crash only means replaying events that were already stored
+    private void writeCheckpoint(long sequence) {
+        synchronized (checkpoint) {
+            if (sequence <= checkpointSequence) {
+                return;
+            }
+            checkpoint.putLong(0, sequence);
+            checkpoint.putInt(8, checksum(sequence));
+            checkpointSequence = sequence;
+        }
+    }
+
+    private static int checksum(long sequence) {
+        CRC32 crc = new CRC32();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            crc.update((int) (sequence >>> shift));
+        }
+        return (int) crc.getValue();
+    }
+
+    private void deleteAcknowledgedSegments() {
+        writeCheckpoint(acknowledgedSequence());
+        List<Segment> deletable = new ArrayList<>();
+        synchronized (appendLock) {
+            Long oldestPending = unacknowledged.isEmpty() ? null : unacknowledged.first();
+            while (!closedSegments.isEmpty()) {
+                Segment oldest = closedSegments.peekFirst();
+                if (oldestPending != null && oldestPending <= oldest.lastSequence) {
+                    break;
+                }
+                deletable.add(closedSegments.pollFirst());
+            }
+        }
+        for (Segment segment : deletable) {
+            try {
+                Files.deleteIfExists(segment.file);
+            } catch (IOException e) {
+                log.warn("Could not delete journal segment {}: {}", segment.file, e.getMessage());
+            }
+        }
+    }
+
+    private static long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    //null at the end of the segment or at the first record that was not completely written
+    private static NotificationEvent readRecord(MappedByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER_BYTES) {
+            return null;
+        }
+        int length = buffer.getInt();
+        int checksum = buffer.getInt();
+        if (length <= 0 || length > buffer.remaining()) {
+            return null;
+        }
+        byte[] payload = new byte[length];
+        buffer.get(payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+        return decode(payload);
+    }
+
+    private static byte[] encode(NotificationEvent event) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        writeString(out, event.getId());
+        writeString(out, event.getType());
+        writeString(out, event.getPostId());
+        writeString(out, event.getOwnerId());
+        writeString(out, event.getTriggerUserId());
+        writeString(out, event.getCommentContent());
+        out.writeLong(event.getCreatedAt().getTime());
+        return bytes.toByteArray();
+    }
+
+    private static NotificationEvent decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        return new NotificationEvent(readString(in), readString(in), readString(in), readString(in),
+                readString(in), readString(in), new Date(in.readLong()));
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class Segment {
+        private final Path file;
+        private final long firstSequence;
+        private long lastSequence;
+        private MappedByteBuffer buffer;
+
+        private Segment(Path file, long firstSequence) {
+            this.file = file;
+            this.firstSequence = firstSequence;
+            this.lastSequence = firstSequence - 1;
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package com.example.Backend.service;
 
 import com.example.Backend.model.Notification;
-import com.example.Backend.model.User;
 import com.example.Backend.repository.NotificationRepository;
-import com.example.Backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.NoSuchElementException;
 
 @Service
 public class NotificationService {
@@ -16,23 +19,22 @@ public class NotificationService {
     private NotificationRepository notificationRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private NotificationDispatcher notificationDispatcher;
 
+    @Autowired
+    private UnreadCounterService unreadCounterService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    //like and comment notifications are queued and stored in batches by the dispatcher
     public void createLikeNotification(String postId, String postOwnerId, String triggerUserId) {
-        User triggerUser = userRepository.findById(triggerUserId)
-                .orElseThrow(() -> new RuntimeException("Trigger user not found"));
-        String message = triggerUser.getName() + " liked your post.";
-        Notification notification = new Notification(postOwnerId, "LIKE", postId, triggerUserId, message);
-        notificationRepository.save(notification);
+        notificationDispatcher.submit(NotificationEvent.like(postId, postOwnerId, triggerUserId));
     }
 
     public void createCommentNotification(String postId, String postOwnerId, String triggerUserId,
             String commentContent) {
-        User triggerUser = userRepository.findById(triggerUserId)
-                .orElseThrow(() -> new RuntimeException("Trigger user not found"));
-        String message = triggerUser.getName() + " commented on your post: " + commentContent;
-        Notification notification = new Notification(postOwnerId, "COMMENT", postId, triggerUserId, message);
-        notificationRepository.save(notification);
+        notificationDispatcher.submit(NotificationEvent.comment(postId, postOwnerId, triggerUserId, commentContent));
     }
 
     public List<Notification> getUserNotifications(String userId) {
@@ -43,10 +45,20 @@ public class NotificationService {
         return notificationRepository.findByUserIdAndReadFalse(userId);
     }
 
+    public long getUnreadCount(String userId) {
+        return unreadCounterService.getUnreadCount(userId);
+    }
+
+    //only the request that flips read from false to true decrements the counter
     public void markNotificationAsRead(String notificationId) {
-        Notification notification = notificationRepository.findById(notificationId)
-                .orElseThrow(() -> new RuntimeException("Notification not found"));
-        notification.setRead(true);
-        notificationRepository.save(notification);
+        Notification notification = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(notificationId).and("read").is(false)),
+                new Update().set("read", true),
+                Notification.class);
+        if (notification != null) {
+            unreadCounterService.decrement(notification.getUserId());
+        } else if (!notificationRepository.existsById(notificationId)) {
+            throw new NoSuchElementException("Notification not found");
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,227 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.Notification;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+//server-sent events for new notifications. connections are async requests, so an idle subscriber costs an
+//emitter and a small buffer but no thread. every connection has its own bounded buffer drained by a shared
+//sender pool; a client that falls behind is disconnected and resumes from Mongo with Last-Event-ID.
+//event ids are "<createdAt millis>-<notification id>", createdAt moves forward when a coalesced notification
+//is bumped, so resuming also picks up groups that changed while the client was away
+@Component
+public class NotificationStream {
+
+    private static final AtomicLong SERIALS = new AtomicLong();
+
+    private final MongoTemplate mongoTemplate;
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final int maxPerUser;
+    private final int replayLimit;
+    private final Map<String, NavigableSet<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeats;
+    private final Counter sent;
+    private final Counter overflowed;
+
+    public NotificationStream(MongoTemplate mongoTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${notifications.stream.timeout-minutes:30}") long timeoutMinutes,
+                              @Value("${notifications.stream.heartbeat-seconds:25}") long heartbeatSeconds,
+                              @Value("${notifications.stream.buffer-size:64}") int bufferSize,
+                              @Value("${notifications.stream.max-per-user:5}") int maxPerUser,
+                              @Value("${notifications.stream.replay-limit:100}") int replayLimit,
+                              @Value("${notifications.stream.sender-threads:2}") int senderThreads) {
+        this.mongoTemplate = mongoTemplate;
+        this.timeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+        this.bufferSize = bufferSize;
+        this.maxPerUser = maxPerUser;
+        this.replayLimit = replayLimit;
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "notification-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-stream-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        //comments keep proxies and load balancers from closing idle connections and reveal dead clients
+        heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        meterRegistry.gauge("notifications.stream.subscribers", subscribers,
+                map -> map.values().stream().mapToInt(Set::size).sum());
+        this.sent = meterRegistry.counter("notifications.stream.sent");
+        this.overflowed = meterRegistry.counter("notifications.stream.overflowed");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        senders.shutdownNow();
+        for (NavigableSet<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    public SseEmitter subscribe(String userId, String lastEventId) {
+        Subscriber subscriber = new Subscriber(userId, new SseEmitter(timeoutMillis));
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> remove(subscriber));
+        subscriber.emitter.onError(e -> remove(subscriber));
+
+        //added inside compute so a concurrent remove cannot drop the set this subscriber lands in
+        NavigableSet<Subscriber> userSubscribers = subscribers.compute(userId, (key, existing) -> {
+            NavigableSet<Subscriber> set = existing != null
+                    ? existing
+                    : new ConcurrentSkipListSet<>(Comparator.comparingLong(s -> s.serial));
+            set.add(subscriber);
+            return set;
+        });
+        //a user with too many open tabs loses the oldest connection
+        while (userSubscribers.size() > maxPerUser) {
+            Subscriber oldest = userSubscribers.pollFirst();
+            if (oldest != null) {
+                oldest.emitter.complete();
+            }
+        }
+
+        //registered before the replay query, so nothing stored in between is missed; a notification that
+        //shows up in both is sent twice with the same id
+        if (lastEventId != null && !lastEventId.isEmpty()) {
+            for (Notification notification : since(userId, lastEventId)) {
+                subscriber.offer(() -> event(notification));
+            }
+        }
+        return subscriber.emitter;
+    }
+
+    public boolean isSubscribed(String userId) {
+        return subscribers.containsKey(userId);
+    }
+
+    public void publish(List<Notification> notifications) {
+        for (Notification notification : notifications) {
+            Set<Subscriber> userSubscribers = subscribers.get(notification.getUserId());
+            if (userSubscribers == null) {
+                continue;
+            }
+            for (Subscriber subscriber : userSubscribers) {
+                subscriber.offer(() -> event(notification));
+            }
+        }
+    }
+
+    private List<Notification> since(String userId, String lastEventId) {
+        int dash = lastEventId.indexOf('-');
+        long millis;
+        try {
+            millis = Long.parseLong(dash < 0 ? lastEventId : lastEventId.substring(0, dash));
+        } catch (NumberFormatException e) {
+            return List.of();
+        }
+        String lastId = dash < 0 ? null : lastEventId.substring(dash + 1);
+        //served by the user_createdAt index; >= because other notifications may share the last millisecond
+        Query query = new Query(Criteria.where("userId").is(userId).and("createdAt").gte(new Date(millis)))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt"))
+                .limit(replayLimit);
+        List<Notification> missed = new ArrayList<>(mongoTemplate.find(query, Notification.class));
+        missed.removeIf(notification -> notification.getId().equals(lastId)
+                && notification.getCreatedAt().getTime() == millis);
+        return missed;
+    }
+
+    private SseEmitter.SseEventBuilder event(Notification notification) {
+        return SseEmitter.event()
+                .id(notification.getCreatedAt().getTime() + "-" + notification.getId())
+                .name("notification")
+                .data(notification, MediaType.APPLICATION_JSON);
+    }
+
+    private void heartbeat() {
+        for (NavigableSet<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                subscriber.offer(() -> SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (key, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+    private final class Subscriber {
+        private final long serial = SERIALS.getAndIncrement();
+        private final String userId;
+        private final SseEmitter emitter;
+        //builders are not reusable, so the buffer holds how to build each event rather than the event
+        private final BlockingQueue<Supplier<SseEmitter.SseEventBuilder>> buffer = new ArrayBlockingQueue<>(bufferSize);
+        //at most one sender works on a connection at a time, so events keep their order
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(String userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private void offer(Supplier<SseEmitter.SseEventBuilder> event) {
+            if (!buffer.offer(event)) {
+                //the client is not keeping up, it reconnects and catches up from Mongo
+                overflowed.increment();
+                remove(this);
+                emitter.complete();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Supplier<SseEmitter.SseEventBuilder> event;
+                while ((event = buffer.poll()) != null) {
+                    emitter.send(event.get());
+                    sent.increment();
+                }
+            } catch (IOException | IllegalStateException e) {
+                //the client went away or the emitter already completed
+                remove(this);
+                buffer.clear();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            //an offer may have landed after the last poll but before draining was cleared
+            if (!buffer.isEmpty() && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+    }
+}
@@ -1,14 +1,20 @@
 package com.example.Backend.service;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
+import com.example.Backend.dto.FeedPage;
+import com.example.Backend.dto.PostSummaryDTO;
 import com.example.Backend.model.Comment;
 import com.example.Backend.model.Like;
 import com.example.Backend.model.Post;
+import com.example.Backend.model.TimelineEntry;
 import com.example.Backend.repository.PostRepository;
 
 @Service
@@ -19,7 +25,59 @@ public class PostService {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private FeedSummaryService feedSummaryService;
+
+    @Autowired
+    private LikeIndex likeIndex;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private RetryOnConflictExecutor retryOnConflictExecutor;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private MediaService mediaService;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private CascadeDeleteService cascadeDeleteService;
+
+    @Value("${feed.page-size.default:20}")
+    private int defaultPageSize;
+
+    @Value("${feed.page-size.max:100}")
+    private int maxPageSize;
+
     public Post createPost(Post post) {
+        prepareNewPost(post);
+        Post savedPost = postRepository.save(post);
+        timelineService.fanOutPost(savedPost);
+        searchService.indexPost(savedPost);
+        thumbnailService.enqueue(savedPost);
+        return savedPost;
+    }
+
+    //validation and initial counters for a post that is about to be inserted, shared with bulk import
+    public void prepareNewPost(Post post) {
         if (post.getUserId() == null || post.getUserId().isEmpty()) {
             throw new IllegalArgumentException("User ID is required");
         }
@@ -29,17 +87,45 @@ public class PostService {
         post.setCreatedAt(new Date());
         post.setUpdatedAt(new Date());
         post.setLikes(new ArrayList<>());
+        post.setLikeCount(0);
         post.setComments(new ArrayList<>());
-        return postRepository.save(post);
+        post.setCommentCount(0);
+        post.setMediaUrls(mediaService.externalizeDataUrls(post.getMediaUrls()));
     }
 
     public List<Post> getAllPosts() {
         return postRepository.findAllByOrderByCreatedAtDesc();
     }
 
+    //keyset page of the global feed, newest first
+    public FeedPage<Post> getFeed(String cursorToken, Integer size) {
+        FeedCursor cursor = FeedCursor.decode(cursorToken);
+        int pageSize = FeedCursor.clampPageSize(size, defaultPageSize, maxPageSize);
+
+        Query query = new Query();
+        if (cursor != null) {
+            query.addCriteria(cursor.toCriteria("createdAt", "id"));
+        }
+        query.with(FeedCursor.sort("createdAt", "id")).limit(pageSize + 1);
+
+        List<Post> posts = mongoTemplate.find(query, Post.class);
+        String nextCursor = null;
+        if (posts.size() > pageSize) {
+            posts = new ArrayList<>(posts.subList(0, pageSize));
+            Post last = posts.get(pageSize - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new FeedPage<>(posts, nextCursor);
+    }
+
+    //same ordering and cursor as getFeed, but as summaries with counts instead of likes and comments
+    public FeedPage<PostSummaryDTO> getFeedSummary(String viewerId, String cursor, Integer size) {
+        return feedSummaryService.getPostSummaries(viewerId, cursor, size);
+    }
+
     public Post getPostById(String id) {
         return postRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
+                .orElseThrow(() -> new NoSuchElementException("Post not found"));
     }
 
     public List<Post> getPostsByUserId(String userId) {
@@ -51,85 +137,81 @@ public class PostService {
     }
 
     public Post updatePost(String id, Post postDetails) {
-        Post post = getPostById(id);
-        post.setDescription(postDetails.getDescription());
-        post.setMediaUrls(postDetails.getMediaUrls());
-        post.setUpdatedAt(new Date());
-        return postRepository.save(post);
+        List<String> mediaUrls = mediaService.externalizeDataUrls(postDetails.getMediaUrls());
+        Post updated = retryOnConflictExecutor.execute("updatePost", () -> {
+            Post post = getPostById(id);
+            post.setDescription(postDetails.getDescription());
+            if (!Objects.equals(post.getMediaUrls(), mediaUrls)) {
+                post.setThumbnailUrls(null);
+            }
+            post.setMediaUrls(mediaUrls);
+            post.setUpdatedAt(new Date());
+            return postRepository.save(post);
+        });
+        searchService.indexPost(updated);
+        thumbnailService.enqueue(updated);
+        return updated;
     }
 
     public void deletePost(String id) {
         Post post = getPostById(id);
         postRepository.delete(post);
+        likeIndex.evict(id);
+        searchService.removePost(id);
+        trendingService.remove(TimelineEntry.TYPE_POST, id);
+        cascadeDeleteService.enqueue(TimelineEntry.TYPE_POST, id);
     }
 
     public Post addComment(String postId, Comment comment) {
-        Post post = getPostById(postId);
-        if (post.getComments() == null) {
-            post.setComments(new ArrayList<>());
-        }
-        if (comment.getUserName() == null || comment.getUserName().isEmpty()) {
-            comment.setUserName("Unknown User");
-        }
-        comment.setId(UUID.randomUUID().toString());
-        comment.setCreatedAt(new Date());
-        comment.setUpdatedAt(new Date());
-        post.getComments().add(comment);
-        post = postRepository.save(post);
+        String postOwnerId = getPostOwnerId(postId);
+        Post post = commentService.addComment(Post.class, Comment.PARENT_POST, postId, postOwnerId, comment);
+        trendingService.recordComment(TimelineEntry.TYPE_POST, postId, 1, comment.getCreatedAt());
         //trigger notification if commenter is not the post owner
-        if (!post.getUserId().equals(comment.getUserId())) {
-            notificationService.createCommentNotification(postId, post.getUserId(), comment.getUserId(),
+        if (!postOwnerId.equals(comment.getUserId())) {
+            notificationService.createCommentNotification(postId, postOwnerId, comment.getUserId(),
                     comment.getContent());
         }
         return post;
     }
 
-    public Post updateComment(String postId, String commentId, Comment commentDetails) {
-        Post post = getPostById(postId);
-        post.getComments().stream()
-                .filter(c -> c.getId().equals(commentId))
-                .findFirst()
-                .ifPresent(c -> {
-                    c.setContent(commentDetails.getContent());
-                    c.setUpdatedAt(new Date());
-                });
-        return postRepository.save(post);
+    public FeedPage<Comment> getComments(String postId, String cursor, Integer size) {
+        return commentService.getComments(postId, cursor, size);
     }
 
-    public Post deleteComment(String postId, String commentId, String userId) {
-        Post post = getPostById(postId);
-        boolean isPostOwner = post.getUserId().equals(userId);
-        post.setComments(post.getComments().stream()
-                .filter(c -> !(c.getId().equals(commentId) && (c.getUserId().equals(userId) || isPostOwner)))
-                .collect(Collectors.toList()));
-        return postRepository.save(post);
+    //comment edits and deletes return only the comment, null if there was nothing to change
+    public Comment updateComment(String postId, String commentId, Comment commentDetails) {
+        return commentService.updateComment(Post.class, postId, commentId, commentDetails);
     }
 
-    public Post addLike(String postId, Like like) {
-        Post post = getPostById(postId);
-        if (post.getLikes() == null) {
-            post.setLikes(new ArrayList<>());
+    public Comment deleteComment(String postId, String commentId, String userId) {
+        Comment removed = commentService.deleteComment(Post.class, postId, commentId, userId);
+        if (removed != null) {
+            trendingService.recordComment(TimelineEntry.TYPE_POST, postId, -1, removed.getCreatedAt());
         }
-        boolean alreadyLiked = post.getLikes().stream()
-                .anyMatch(l -> l.getUserId().equals(like.getUserId()));
-
-        if (!alreadyLiked) {
-            like.setCreatedAt(new Date());
-            post.getLikes().add(like);
-            post = postRepository.save(post);
-            // Trigger notification if liker is not the post owner
-            if (!post.getUserId().equals(like.getUserId())) {
-                notificationService.createLikeNotification(postId, post.getUserId(), like.getUserId());
-            }
+        return removed;
+    }
+
+    private String getPostOwnerId(String postId) {
+        Query query = new Query(Criteria.where("id").is(postId));
+        query.fields().include("userId");
+        Post post = mongoTemplate.findOne(query, Post.class);
+        if (post == null) {
+            throw new NoSuchElementException("Post not found");
         }
-        return post;
+        return post.getUserId();
+    }
+
+    //returns only id, userId and likeCount, or null when the like was accepted by the write-behind buffer
+    public Post addLike(String postId, Like like) {
+        return likeService.addLike(Post.class, TimelineEntry.TYPE_POST, "Post", postId, like);
     }
 
     public Post removeLike(String postId, String userId) {
-        Post post = getPostById(postId);
-        post.setLikes(post.getLikes().stream()
-                .filter(like -> !like.getUserId().equals(userId))
-                .collect(Collectors.toList()));
-        return postRepository.save(post);
+        return likeService.removeLike(Post.class, TimelineEntry.TYPE_POST, "Post", postId, userId);
+    }
+
+    //which of the given posts userId has liked, answered from the in-memory like index
+    public Map<String, Boolean> getLikedByUser(String userId, List<String> postIds) {
+        return likeIndex.likedBy(Post.class, userId, postIds);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,66 @@
+package com.example.Backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+//runs a read-modify-write of a @Version'ed document and re-runs it from the read when the save loses
+//the race. the wait between attempts is exponential with full jitter so hot documents do not see the
+//same writers collide again in lockstep. per operation, concurrency.conflicts counts lost races,
+//concurrency.outcomes counts finished operations by outcome and concurrency.attempts records how many
+//attempts each one took
+@Component
+public class RetryOnConflictExecutor {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    public RetryOnConflictExecutor(MeterRegistry meterRegistry,
+                                   @Value("${concurrency.retry.max-attempts:5}") int maxAttempts,
+                                   @Value("${concurrency.retry.base-delay-ms:10}") long baseDelayMillis,
+                                   @Value("${concurrency.retry.max-delay-ms:200}") long maxDelayMillis) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    //the action must do its own read, every attempt starts from fresh state
+    public <T> T execute(String operation, Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = action.get();
+                finished(operation, "success", attempt);
+                return result;
+            } catch (OptimisticLockingFailureException e) {
+                meterRegistry.counter("concurrency.conflicts", "operation", operation).increment();
+                if (attempt >= maxAttempts) {
+                    finished(operation, "exhausted", attempt);
+                    throw e;
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    private void finished(String operation, String outcome, int attempts) {
+        meterRegistry.counter("concurrency.outcomes", "operation", operation, "outcome", outcome).increment();
+        meterRegistry.summary("concurrency.attempts", "operation", operation).record(attempts);
+    }
+
+    private void backOff(int attempt) {
+        long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying after a write conflict", e);
+        }
+    }
+}
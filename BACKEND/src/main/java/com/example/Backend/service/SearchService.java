@@ -0,0 +1,147 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.SearchHit;
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.model.Post;
+import com.example.Backend.model.TimelineEntry;
+import com.example.Backend.repository.LearningProgressRepository;
+import com.example.Backend.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+//full-text search over post descriptions and learning progress text fields, answered from an in-process
+//inverted index. the index is built once at startup by streaming both collections and kept current by
+//the create / update / delete paths of PostService and LearningProgressService. the build runs once all
+//beans exist but before the web server starts, so a streamed copy can never overwrite a newer live update
+//or bring back an entry deleted meanwhile
+@Service
+public class SearchService implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchService.class);
+
+    private final InvertedIndex index = new InvertedIndex();
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private LearningProgressRepository learningProgressRepository;
+
+    @Value("${search.limit.default:20}")
+    private int defaultLimit;
+
+    @Value("${search.limit.max:100}")
+    private int maxLimit;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        Query posts = new Query();
+        posts.fields().include("description");
+        try (Stream<Post> stream = mongoTemplate.stream(posts, Post.class)) {
+            stream.forEach(this::indexPost);
+        }
+        Query entries = new Query();
+        entries.fields().include("title").include("description").include("tutorialName").include("projectName")
+                .include("skillsLearned").include("challenges");
+        try (Stream<LearningProgress> stream = mongoTemplate.stream(entries, LearningProgress.class)) {
+            stream.forEach(this::indexLearningProgress);
+        }
+        log.info("Search index built in {} ms", System.currentTimeMillis() - started);
+    }
+
+    public void indexPost(Post post) {
+        indexPosts(List.of(post));
+    }
+
+    public void indexLearningProgress(LearningProgress progress) {
+        indexLearningProgress(List.of(progress));
+    }
+
+    public void indexPosts(List<Post> posts) {
+        Map<String, String[]> documents = new HashMap<>();
+        for (Post post : posts) {
+            documents.put(key(TimelineEntry.TYPE_POST, post.getId()), new String[]{post.getDescription()});
+        }
+        index.putAll(documents);
+    }
+
+    public void indexLearningProgress(List<LearningProgress> entries) {
+        Map<String, String[]> documents = new HashMap<>();
+        for (LearningProgress progress : entries) {
+            documents.put(key(TimelineEntry.TYPE_LEARNING_PROGRESS, progress.getId()), new String[]{
+                    progress.getTitle(), progress.getDescription(), progress.getTutorialName(),
+                    progress.getProjectName(), progress.getSkillsLearned(), progress.getChallenges()});
+        }
+        index.putAll(documents);
+    }
+
+    public void removePost(String postId) {
+        index.remove(key(TimelineEntry.TYPE_POST, postId));
+    }
+
+    public void removeLearningProgress(String entryId) {
+        index.remove(key(TimelineEntry.TYPE_LEARNING_PROGRESS, entryId));
+    }
+
+    //type is POST or LEARNING_PROGRESS, or null for both
+    public List<SearchHit> search(String query, String type, Integer limit) {
+        int maxHits = FeedCursor.clampPageSize(limit, defaultLimit, maxLimit);
+        String prefix = type == null || type.isEmpty() ? null : type + ":";
+        List<InvertedIndex.Match> matches = index.search(query, maxHits,
+                key -> prefix == null || key.startsWith(prefix));
+
+        List<SearchHit> hits = new ArrayList<>(matches.size());
+        List<String> postIds = new ArrayList<>();
+        List<String> progressIds = new ArrayList<>();
+        for (InvertedIndex.Match match : matches) {
+            int separator = match.getKey().indexOf(':');
+            SearchHit hit = new SearchHit(match.getKey().substring(0, separator),
+                    match.getKey().substring(separator + 1), match.getScore());
+            if (TimelineEntry.TYPE_POST.equals(hit.getType())) {
+                postIds.add(hit.getId());
+            } else {
+                progressIds.add(hit.getId());
+            }
+            hits.add(hit);
+        }
+
+        Map<String, Post> posts = new HashMap<>();
+        postRepository.findAllById(postIds).forEach(post -> posts.put(post.getId(), post));
+        Map<String, LearningProgress> progress = new HashMap<>();
+        learningProgressRepository.findAllById(progressIds).forEach(entry -> progress.put(entry.getId(), entry));
+
+        List<SearchHit> resolved = new ArrayList<>(hits.size());
+        for (SearchHit hit : hits) {
+            if (TimelineEntry.TYPE_POST.equals(hit.getType())) {
+                hit.setPost(posts.get(hit.getId()));
+            } else {
+                hit.setLearningProgress(progress.get(hit.getId()));
+            }
+            if (hit.getPost() != null || hit.getLearningProgress() != null) {
+                resolved.add(hit);
+            }
+        }
+        return resolved;
+    }
+
+    private static String key(String type, String id) {
+        return type + ":" + id;
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.Post;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.*;
+
+//background thumbnails for post images. posts are queued after they are saved, a pool with one
+//worker per core scales each stored image down with ImageIO and records the thumbnail urls on the post.
+//the queue is bounded: when it is full the post is skipped and the feed keeps showing the original
+@Service
+public class ThumbnailService {
+
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final MediaService mediaService;
+    private final int width;
+    private final long maxPixels;
+    private final BlockingQueue<Runnable> queue;
+    private final ThreadPoolExecutor workers;
+    private final Counter rejected;
+    private final Timer latency;
+    private final Timer processing;
+
+    public ThumbnailService(MongoTemplate mongoTemplate,
+                            MediaService mediaService,
+                            MeterRegistry meterRegistry,
+                            @Value("${media.thumbnails.width:320}") int width,
+                            @Value("${media.thumbnails.max-pixels:50000000}") long maxPixels,
+                            @Value("${media.thumbnails.queue-capacity:1000}") int queueCapacity) {
+        this.mongoTemplate = mongoTemplate;
+        this.mediaService = mediaService;
+        this.width = width;
+        this.maxPixels = maxPixels;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        int cores = Runtime.getRuntime().availableProcessors();
+        this.workers = new ThreadPoolExecutor(cores, cores, 0L, TimeUnit.MILLISECONDS, queue, runnable -> {
+            Thread thread = new Thread(runnable, "media-thumbnails");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        meterRegistry.gauge("media.thumbnails.queue", queue, BlockingQueue::size);
+        this.rejected = meterRegistry.counter("media.thumbnails.rejected");
+        //latency is from enqueue to the post being updated, processing only covers the resizing
+        this.latency = meterRegistry.timer("media.thumbnails.latency");
+        this.processing = meterRegistry.timer("media.thumbnails.processing");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    public void enqueue(Post post) {
+        if (post.getMediaUrls() == null || post.getMediaUrls().isEmpty()) {
+            return;
+        }
+        String postId = post.getId();
+        List<String> mediaUrls = new ArrayList<>(post.getMediaUrls());
+        long queuedAt = System.nanoTime();
+        try {
+            workers.execute(() -> {
+                generate(postId, mediaUrls);
+                latency.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+        }
+    }
+
+    private void generate(String postId, List<String> mediaUrls) {
+        List<String> thumbnailUrls = new ArrayList<>(mediaUrls.size());
+        boolean any = false;
+        for (String entry : mediaUrls) {
+            String thumbnailUrl = null;
+            String mediaId = mediaService.mediaIdOf(entry);
+            if (mediaId != null) {
+                try {
+                    thumbnailUrl = processing.recordCallable(() -> thumbnail(mediaId));
+                } catch (Exception e) {
+                    log.warn("Thumbnail for {} failed: {}", mediaId, e.getMessage());
+                }
+            }
+            thumbnailUrls.add(thumbnailUrl);
+            any |= thumbnailUrl != null;
+        }
+        if (!any) {
+            return;
+        }
+        //only applies if the media was not replaced in the meantime
+        Query query = new Query(Criteria.where("id").is(postId).and("mediaUrls").is(mediaUrls));
+        Update update = new Update().set("thumbnailUrls", thumbnailUrls).inc("version", 1);
+        mongoTemplate.updateFirst(query, update, Post.class);
+    }
+
+    //returns null for files ImageIO cannot read, such as videos
+    private String thumbnail(String mediaId) throws IOException {
+        String thumbnailId = MediaService.derivativeId(mediaId, width, "jpg");
+        if (mediaService.find(thumbnailId) != null) {
+            return MediaService.URL_PREFIX + thumbnailId;
+        }
+        Path source = mediaService.find(mediaId);
+        if (source == null) {
+            return null;
+        }
+        BufferedImage original = decode(source);
+        if (original == null) {
+            return null;
+        }
+        int targetWidth = Math.min(width, original.getWidth());
+        int targetHeight = Math.max(1, Math.round(original.getHeight() * (targetWidth / (float) original.getWidth())));
+        BufferedImage scaled = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(original, 0, 0, targetWidth, targetHeight, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(scaled, "jpg", out);
+        mediaService.storeDerivative(thumbnailId, out.toByteArray());
+        return MediaService.URL_PREFIX + thumbnailId;
+    }
+
+    //the dimensions come from the header before any pixel is decoded, so a small file that claims a huge
+    //canvas is rejected instead of being inflated into memory. large images are decoded with subsampling
+    //down to about twice the thumbnail width, which is plenty for a smooth downscale
+    private BufferedImage decode(Path source) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            if (in == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int sourceWidth = reader.getWidth(0);
+                int sourceHeight = reader.getHeight(0);
+                if ((long) sourceWidth * sourceHeight > maxPixels) {
+                    throw new IllegalArgumentException("Image of " + sourceWidth + "x" + sourceHeight
+                            + " exceeds " + maxPixels + " pixels");
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, sourceWidth / (width * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.ActivityItem;
+import com.example.Backend.dto.FeedPage;
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.model.Post;
+import com.example.Backend.model.TimelineEntry;
+import com.example.Backend.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+//home timelines are materialized per reader: every new entry is pushed into the inbox of the author and
+//each of their followers, so reading a home feed is one range scan on (ownerId, createdAt).
+//authors with more than followerThreshold followers are not fanned out; their recent entries are pulled
+//and merged into the reader's inbox page at read time instead. inboxes are trimmed to maxInboxSize in the
+//background: fan-out only marks the owners, a scheduled task trims a bounded number of them per run
+@Service
+public class TimelineService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ActivityHydrator activityHydrator;
+
+    @Value("${timeline.inbox.max-size:800}")
+    private int maxInboxSize;
+
+    @Value("${timeline.fanout.follower-threshold:5000}")
+    private int followerThreshold;
+
+    @Value("${feed.page-size.default:20}")
+    private int defaultPageSize;
+
+    @Value("${feed.page-size.max:100}")
+    private int maxPageSize;
+
+    @Value("${timeline.fanout.bulk-size:10000}")
+    private int fanOutBulkSize;
+
+    @Value("${timeline.trim.batch-size:500}")
+    private int trimBatchSize;
+
+    private final Set<String> pendingTrims = ConcurrentHashMap.newKeySet();
+
+    public void fanOutPost(Post post) {
+        fanOutPosts(List.of(post));
+    }
+
+    public void fanOutLearningProgress(LearningProgress progress) {
+        fanOutLearningProgress(List.of(progress));
+    }
+
+    public void fanOutPosts(List<Post> posts) {
+        List<TimelineEntry> entries = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            entries.add(new TimelineEntry(post.getUserId(), post.getId(), TimelineEntry.TYPE_POST,
+                    post.getUserId(), post.getCreatedAt()));
+        }
+        fanOut(entries);
+    }
+
+    public void fanOutLearningProgress(List<LearningProgress> entries) {
+        List<TimelineEntry> authored = new ArrayList<>(entries.size());
+        for (LearningProgress progress : entries) {
+            authored.add(new TimelineEntry(progress.getUserId(), progress.getId(),
+                    TimelineEntry.TYPE_LEARNING_PROGRESS, progress.getUserId(), progress.getCreatedAt()));
+        }
+        fanOut(authored);
+    }
+
+    //entries are the authors' own inbox copies. followers of all authors are loaded in one query and the
+    //copies for every follower go out in unordered bulks of at most fanOutBulkSize inserts
+    private void fanOut(List<TimelineEntry> authored) {
+        if (authored.isEmpty()) {
+            return;
+        }
+        Map<String, List<String>> followersByAuthor = findFollowerIds(authored.stream()
+                .map(TimelineEntry::getAuthorId)
+                .collect(Collectors.toSet()));
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TimelineEntry.class);
+        int pending = 0;
+        Set<String> owners = new LinkedHashSet<>();
+        for (TimelineEntry entry : authored) {
+            Set<String> entryOwners = new LinkedHashSet<>();
+            entryOwners.add(entry.getAuthorId());
+            List<String> followerIds = followersByAuthor.getOrDefault(entry.getAuthorId(), Collections.emptyList());
+            if (followerIds.size() <= followerThreshold) {
+                entryOwners.addAll(followerIds);
+            }
+            for (String ownerId : entryOwners) {
+                bulk.insert(new TimelineEntry(ownerId, entry.getEntryId(), entry.getEntryType(),
+                        entry.getAuthorId(), entry.getCreatedAt()));
+                if (++pending == fanOutBulkSize) {
+                    bulk.execute();
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TimelineEntry.class);
+                    pending = 0;
+                }
+            }
+            owners.addAll(entryOwners);
+        }
+        if (pending > 0) {
+            bulk.execute();
+        }
+        pendingTrims.addAll(owners);
+    }
+
+    //users following an author are kept in the author's followedUsers list, at most followerThreshold + 1
+    //of them are loaded since anything longer means the author is served by pull
+    private Map<String, List<String>> findFollowerIds(Set<String> authorIds) {
+        Query query = new Query(Criteria.where("id").in(authorIds));
+        query.fields().slice("followedUsers", followerThreshold + 1);
+        Map<String, List<String>> followers = new HashMap<>();
+        for (User author : mongoTemplate.find(query, User.class)) {
+            if (author.getFollowedUsers() != null) {
+                followers.put(author.getId(), author.getFollowedUsers());
+            }
+        }
+        return followers;
+    }
+
+    //drops everything past the newest maxInboxSize entries of up to trimBatchSize marked inboxes. an owner
+    //that got several entries since the last run is trimmed once, and all removals go out in one bulk
+    @Scheduled(fixedDelayString = "${timeline.trim.interval-ms:1000}")
+    public void trimPendingInboxes() {
+        List<String> owners = new ArrayList<>(trimBatchSize);
+        for (Iterator<String> it = pendingTrims.iterator(); it.hasNext() && owners.size() < trimBatchSize; ) {
+            owners.add(it.next());
+            it.remove();
+        }
+        if (owners.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TimelineEntry.class);
+        boolean any = false;
+        for (String ownerId : owners) {
+            Query boundaryQuery = new Query(Criteria.where("ownerId").is(ownerId))
+                    .with(FeedCursor.sort("createdAt", "entryId"))
+                    .skip(maxInboxSize)
+                    .limit(1);
+            boundaryQuery.fields().include("createdAt").include("entryId");
+            TimelineEntry boundary = mongoTemplate.findOne(boundaryQuery, TimelineEntry.class);
+            if (boundary == null) {
+                continue;
+            }
+            FeedCursor olderThanBoundary = new FeedCursor(boundary.getCreatedAt(), boundary.getEntryId());
+            bulk.remove(new Query(Criteria.where("ownerId").is(ownerId).orOperator(
+                    olderThanBoundary.toCriteria("createdAt", "entryId"),
+                    Criteria.where("id").is(boundary.getId()))));
+            any = true;
+        }
+        if (any) {
+            bulk.execute();
+        }
+    }
+
+    public FeedPage<ActivityItem> getHomeTimeline(String userId, String cursorToken, Integer size) {
+        FeedCursor cursor = FeedCursor.decode(cursorToken);
+        int pageSize = FeedCursor.clampPageSize(size, defaultPageSize, maxPageSize);
+
+        Query query = new Query(Criteria.where("ownerId").is(userId));
+        if (cursor != null) {
+            query.addCriteria(cursor.toCriteria("createdAt", "entryId"));
+        }
+        query.with(FeedCursor.sort("createdAt", "entryId")).limit(pageSize + 1);
+        List<TimelineEntry> inbox = mongoTemplate.find(query, TimelineEntry.class);
+
+        //pull side: recent entries of followed high-follower authors, at most one page from each collection
+        Map<String, Post> pulledPosts = new HashMap<>();
+        Map<String, LearningProgress> pulledProgress = new HashMap<>();
+        List<String> pullAuthorIds = findFollowedPullAuthorIds(userId);
+        List<TimelineEntry> postEntries = new ArrayList<>();
+        List<TimelineEntry> progressEntries = new ArrayList<>();
+        if (!pullAuthorIds.isEmpty()) {
+            for (Post post : mongoTemplate.find(pullQuery(pullAuthorIds, cursor, pageSize + 1), Post.class)) {
+                pulledPosts.put(post.getId(), post);
+                postEntries.add(new TimelineEntry(userId, post.getId(), TimelineEntry.TYPE_POST,
+                        post.getUserId(), post.getCreatedAt()));
+            }
+            for (LearningProgress progress : mongoTemplate.find(pullQuery(pullAuthorIds, cursor, pageSize + 1),
+                    LearningProgress.class)) {
+                pulledProgress.put(progress.getId(), progress);
+                progressEntries.add(new TimelineEntry(userId, progress.getId(), TimelineEntry.TYPE_LEARNING_PROGRESS,
+                        progress.getUserId(), progress.getCreatedAt()));
+            }
+        }
+
+        Comparator<TimelineEntry> newestFirst = Comparator.comparing(TimelineEntry::getCreatedAt)
+                .thenComparing(TimelineEntry::getEntryId)
+                .reversed();
+        Iterator<TimelineEntry> merged = new KWayMergeIterator<>(
+                List.of(inbox.iterator(), postEntries.iterator(), progressEntries.iterator()), newestFirst);
+
+        //an entry can be both in the inbox and pulled if its author crossed the threshold after it was fanned out
+        List<TimelineEntry> entries = new ArrayList<>(pageSize + 1);
+        Set<String> seen = new HashSet<>();
+        while (merged.hasNext() && entries.size() <= pageSize) {
+            TimelineEntry entry = merged.next();
+            if (seen.add(entry.getEntryId())) {
+                entries.add(entry);
+            }
+        }
+
+        String nextCursor = null;
+        if (entries.size() > pageSize) {
+            entries = entries.subList(0, pageSize);
+            TimelineEntry last = entries.get(pageSize - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getEntryId()).encode();
+        }
+        return new FeedPage<>(activityHydrator.hydrate(entries, pulledPosts, pulledProgress), nextCursor);
+    }
+
+    //followed authors whose follower list is longer than the threshold, i.e. whose followedUsers array
+    //has an element at index followerThreshold
+    private List<String> findFollowedPullAuthorIds(String userId) {
+        Query readerQuery = new Query(Criteria.where("id").is(userId));
+        readerQuery.fields().include("followingUsers");
+        User reader = mongoTemplate.findOne(readerQuery, User.class);
+        if (reader == null || reader.getFollowingUsers() == null || reader.getFollowingUsers().isEmpty()) {
+            return Collections.emptyList();
+        }
+        Query authorQuery = new Query(Criteria.where("id").in(reader.getFollowingUsers())
+                .and("followedUsers." + followerThreshold).exists(true));
+        authorQuery.fields().include("id");
+        return mongoTemplate.find(authorQuery, User.class).stream()
+                .map(User::getId)
+                .collect(Collectors.toList());
+    }
+
+    private Query pullQuery(List<String> authorIds, FeedCursor cursor, int limit) {
+        Query query = new Query(Criteria.where("userId").in(authorIds));
+        if (cursor != null) {
+            query.addCriteria(cursor.toCriteria("createdAt", "id"));
+        }
+        return query.with(FeedCursor.sort("createdAt", "id")).limit(limit);
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.ActivityItem;
+import com.example.Backend.model.Comment;
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.model.Like;
+import com.example.Backend.model.Post;
+import com.example.Backend.model.TimelineEntry;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+//trending posts and learning progress entries by exponentially time-decayed engagement.
+//scores use forward decay: an event at time t adds weight * e^(lambda * (t - epoch)), so scores never
+//have to be recomputed as time passes and their order is the order of the decayed scores. the epoch is
+//moved forward now and then to keep the exponent small. scores live in a concurrent map and are updated
+//with merge, so likes on different entries never wait for each other. the ranking is a snapshot of the top
+//`capacity` entries that is rebuilt with a bounded heap every refresh-ms; entries below it are dropped
+//from the map at that point and start from zero again
+@Service
+public class TrendingService implements SmartInitializingSingleton {
+
+    private static final double MAX_EXPONENT = 500;
+    private static final int WARMUP_BATCH_SIZE = 500;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ActivityHydrator activityHydrator;
+
+    @Value("${trending.half-life-hours:24}")
+    private double halfLifeHours;
+
+    @Value("${trending.capacity:5000}")
+    private int capacity;
+
+    @Value("${trending.like-weight:1.0}")
+    private double likeWeight;
+
+    @Value("${trending.comment-weight:3.0}")
+    private double commentWeight;
+
+    @Value("${trending.warmup-days:7}")
+    private int warmupDays;
+
+    @Value("${trending.limit.max:100}")
+    private int maxLimit;
+
+    private final ConcurrentHashMap<String, Double> scores = new ConcurrentHashMap<>();
+    //updates share the read lock, only moving the epoch takes the write lock
+    private final ReadWriteLock epochLock = new ReentrantReadWriteLock();
+    private volatile List<Ranked> ranking = List.of();
+    private volatile long epochMillis = System.currentTimeMillis();
+
+    //seeds scores from the likes and comments of recent entries at the time each one was made, so a later
+    //unlike or comment removal takes off exactly what the seed added. this runs once all beans exist but
+    //before the web server starts, so no like or comment is both seeded and recorded live
+    @Override
+    public void afterSingletonsInstantiated() {
+        warmUp();
+    }
+
+    public void warmUp() {
+        Date since = new Date(System.currentTimeMillis() - warmupDays * 86_400_000L);
+        warmUp(Post.class, TimelineEntry.TYPE_POST, since);
+        warmUp(LearningProgress.class, TimelineEntry.TYPE_LEARNING_PROGRESS, since);
+        refreshRanking();
+    }
+
+    private void warmUp(Class<?> type, String entryType, Date since) {
+        Query query = new Query(Criteria.where("createdAt").gte(since));
+        query.fields().include("createdAt").include("likes.createdAt");
+        List<String> ids = new ArrayList<>();
+        try (Stream<?> stream = mongoTemplate.stream(query, type)) {
+            stream.forEach(entry -> {
+                if (entry instanceof Post post) {
+                    ids.add(post.getId());
+                    seedLikes(key(entryType, post.getId()), post.getLikes(), post.getCreatedAt());
+                } else if (entry instanceof LearningProgress progress) {
+                    ids.add(progress.getId());
+                    seedLikes(key(entryType, progress.getId()), progress.getLikes(), progress.getCreatedAt());
+                }
+            });
+        }
+        //comments through the parent_createdAt_id index, a batch of parents per query
+        for (int from = 0; from < ids.size(); from += WARMUP_BATCH_SIZE) {
+            Query comments = new Query(Criteria.where("parentId")
+                    .in(ids.subList(from, Math.min(from + WARMUP_BATCH_SIZE, ids.size()))));
+            comments.fields().include("parentId").include("createdAt");
+            try (Stream<Comment> stream = mongoTemplate.stream(comments, Comment.class)) {
+                stream.forEach(comment -> add(key(entryType, comment.getParentId()), commentWeight,
+                        millis(comment.getCreatedAt())));
+            }
+        }
+    }
+
+    //likes stored before they had a timestamp count as made when the entry was created
+    private void seedLikes(String key, List<Like> likes, Date createdAt) {
+        if (likes == null) {
+            return;
+        }
+        for (Like like : likes) {
+            add(key, likeWeight, millis(like.getCreatedAt() != null ? like.getCreatedAt() : createdAt));
+        }
+    }
+
+    //at is when the like or comment was made, also when it is taken back: an unlike removes exactly what the
+    //like contributed, not a full weight at today's decay
+    public void recordLike(String entryType, String id, int delta, Date at) {
+        add(key(entryType, id), delta * likeWeight, millis(at));
+    }
+
+    public void recordComment(String entryType, String id, int delta, Date at) {
+        add(key(entryType, id), delta * commentWeight, millis(at));
+    }
+
+    private static long millis(Date at) {
+        return at != null ? at.getTime() : System.currentTimeMillis();
+    }
+
+    public void remove(String entryType, String id) {
+        scores.remove(key(entryType, id));
+    }
+
+    private void add(String key, double weight, long atMillis) {
+        if (weight == 0) {
+            return;
+        }
+        epochLock.readLock().lock();
+        try {
+            double contribution = weight * Math.exp(lambda() * (atMillis - epochMillis));
+            //atomic per key; a score that drops to zero removes the entry
+            scores.compute(key, (k, previous) -> {
+                double updated = (previous == null ? 0 : previous) + contribution;
+                return updated > 0 ? updated : null;
+            });
+        } finally {
+            epochLock.readLock().unlock();
+        }
+    }
+
+    //top `capacity` scores through a min-heap of that size; whatever does not make it is dropped unless it
+    //was updated in the meantime
+    @Scheduled(fixedDelayString = "${trending.refresh-ms:1000}")
+    public void refreshRanking() {
+        PriorityQueue<Ranked> top = new PriorityQueue<>(capacity + 1, Comparator.reverseOrder());
+        List<Ranked> evicted = new ArrayList<>();
+        for (Map.Entry<String, Double> entry : scores.entrySet()) {
+            top.add(new Ranked(entry.getKey(), entry.getValue()));
+            if (top.size() > capacity) {
+                evicted.add(top.poll());
+            }
+        }
+        for (Ranked ranked : evicted) {
+            scores.remove(ranked.key, ranked.score);
+        }
+        List<Ranked> sorted = new ArrayList<>(top);
+        Collections.sort(sorted);
+        ranking = Collections.unmodifiableList(sorted);
+    }
+
+    //rescales all scores to a newer epoch before e^(lambda * (now - epoch)) gets anywhere near overflowing
+    @Scheduled(fixedDelayString = "${trending.rebase-check-ms:3600000}")
+    public void rebase() {
+        epochLock.writeLock().lock();
+        try {
+            long now = System.currentTimeMillis();
+            if (lambda() * (now - epochMillis) < MAX_EXPONENT / 2) {
+                return;
+            }
+            double factor = Math.exp(-lambda() * (now - epochMillis));
+            scores.replaceAll((key, score) -> score * factor);
+            epochMillis = now;
+        } finally {
+            epochLock.writeLock().unlock();
+        }
+        refreshRanking();
+    }
+
+    //read from the latest ranking snapshot; entries removed since it was built are skipped
+    public List<ActivityItem> getTrending(Integer limit, String entryType) {
+        int maxItems = FeedCursor.clampPageSize(limit, 20, maxLimit);
+        List<TimelineEntry> refs = new ArrayList<>(maxItems);
+        for (Ranked ranked : ranking) {
+            if (!scores.containsKey(ranked.key)) {
+                continue;
+            }
+            int separator = ranked.key.indexOf(':');
+            String type = ranked.key.substring(0, separator);
+            if (entryType == null || entryType.isEmpty() || entryType.equals(type)) {
+                refs.add(new TimelineEntry(null, ranked.key.substring(separator + 1), type, null, null));
+                if (refs.size() == maxItems) {
+                    break;
+                }
+            }
+        }
+        return activityHydrator.hydrate(refs);
+    }
+
+    private double lambda() {
+        return Math.log(2) / (halfLifeHours * 3_600_000d);
+    }
+
+    private static String key(String entryType, String id) {
+        return entryType + ":" + id;
+    }
+
+    private static final class Ranked implements Comparable<Ranked> {
+        private final String key;
+        private final double score;
+
+        private Ranked(String key, double score) {
+            this.key = key;
+            this.score = score;
+        }
+
+        //highest score first, ties broken by key so distinct entries never compare equal
+        @Override
+        public int compareTo(Ranked other) {
+            int byScore = Double.compare(other.score, score);
+            return byScore != 0 ? byScore : key.compareTo(other.key);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Ranked && compareTo((Ranked) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(key, score);
+        }
+    }
+}
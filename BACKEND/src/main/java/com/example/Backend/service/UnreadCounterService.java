@@ -0,0 +1,164 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.Notification;
+import com.example.Backend.model.UnreadCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+//unread notification counts for the header badge. the count of every user is persisted in unread_counters
+//and the recently read ones are kept in a bounded lru map, so a badge read is a map lookup. the counter is
+//maintained with $inc: up when notifications are stored unread (or a coalesced group turns unread again),
+//down when one is marked read or removed. every change bumps the counter's revision and the cache only ever
+//takes a value with a newer revision, so concurrent changes cannot overwrite each other. counting from the
+//notifications only happens the first time a user is read and in the scheduled reconcile
+@Service
+public class UnreadCounterService {
+
+    private final MongoTemplate mongoTemplate;
+    private final int reconcileBatchSize;
+    private final Map<String, CachedCount> cache;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter corrected;
+
+    public UnreadCounterService(MongoTemplate mongoTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${notifications.unread.cache-size:10000}") int cacheSize,
+                                @Value("${notifications.unread.reconcile-batch-size:500}") int reconcileBatchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.reconcileBatchSize = reconcileBatchSize;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedCount> eldest) {
+                return size() > cacheSize;
+            }
+        });
+        meterRegistry.gauge("notifications.unread.cache.size", cache, Map::size);
+        this.hits = meterRegistry.counter("notifications.unread.cache.hits");
+        this.misses = meterRegistry.counter("notifications.unread.cache.misses");
+        this.corrected = meterRegistry.counter("notifications.unread.corrected");
+    }
+
+    public long getUnreadCount(String userId) {
+        CachedCount cached = cache.get(userId);
+        if (cached != null) {
+            hits.increment();
+            return cached.unread;
+        }
+        misses.increment();
+        UnreadCounter counter = mongoTemplate.findById(userId, UnreadCounter.class);
+        if (counter == null) {
+            counter = build(userId);
+        }
+        remember(counter);
+        return counter.getUnread();
+    }
+
+    //deltas per user: positive for notifications stored unread, negative for unread ones removed
+    public void adjust(Map<String, Long> deltas) {
+        deltas.forEach((userId, delta) -> {
+            if (delta != 0) {
+                apply(Criteria.where("_id").is(userId), delta);
+            }
+        });
+    }
+
+    //called when a notification goes from unread to read
+    public void decrement(String userId) {
+        apply(Criteria.where("_id").is(userId).and("unread").gt(0), -1);
+    }
+
+    //users without a counter are skipped, their counter is built from the notifications on the first read
+    private void apply(Criteria criteria, long delta) {
+        UnreadCounter counter = mongoTemplate.findAndModify(new Query(criteria),
+                new Update().inc("unread", delta).inc("revision", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                UnreadCounter.class);
+        if (counter != null) {
+            remember(counter);
+        }
+    }
+
+    //a concurrent first read may have stored the counter already, then that one is kept
+    private UnreadCounter build(String userId) {
+        long unread = count(List.of(userId)).get(userId);
+        return mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(userId)),
+                new Update().setOnInsert("unread", unread).setOnInsert("revision", 0L)
+                        .setOnInsert("reconciledAt", new Date()),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                UnreadCounter.class);
+    }
+
+    private void remember(UnreadCounter counter) {
+        cache.merge(counter.getId(), new CachedCount(counter.getUnread(), counter.getRevision()),
+                (current, loaded) -> loaded.revision >= current.revision ? loaded : current);
+    }
+
+    //unread notifications of the given users, counted in one aggregation over the user_read_createdAt index
+    private Map<String, Long> count(Collection<String> userIds) {
+        Map<String, Long> counts = new HashMap<>();
+        for (String userId : userIds) {
+            counts.put(userId, 0L);
+        }
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("userId").in(counts.keySet()).and("read").is(false)),
+                Aggregation.group("userId").count().as("unread"));
+        for (Document result : mongoTemplate.aggregate(aggregation, Notification.class, Document.class)) {
+            counts.put(result.getString("_id"), ((Number) result.get("unread")).longValue());
+        }
+        return counts;
+    }
+
+    //recounts the cached users and corrects counters that drifted. a counter is only overwritten if its
+    //revision is still the one read before counting, one that changed meanwhile waits for the next run
+    @Scheduled(fixedDelayString = "${notifications.unread.reconcile-ms:300000}")
+    public void reconcile() {
+        List<String> userIds;
+        synchronized (cache) {
+            userIds = new ArrayList<>(cache.keySet());
+        }
+        for (int from = 0; from < userIds.size(); from += reconcileBatchSize) {
+            List<String> chunk = userIds.subList(from, Math.min(from + reconcileBatchSize, userIds.size()));
+            List<UnreadCounter> counters = mongoTemplate.find(new Query(Criteria.where("_id").in(chunk)),
+                    UnreadCounter.class);
+            Map<String, Long> counts = count(chunk);
+            for (UnreadCounter counter : counters) {
+                long actual = counts.get(counter.getId());
+                if (actual == counter.getUnread()) {
+                    continue;
+                }
+                UnreadCounter fixed = mongoTemplate.findAndModify(
+                        new Query(Criteria.where("_id").is(counter.getId()).and("revision").is(counter.getRevision())),
+                        new Update().set("unread", actual).inc("revision", 1).set("reconciledAt", new Date()),
+                        FindAndModifyOptions.options().returnNew(true),
+                        UnreadCounter.class);
+                if (fixed != null) {
+                    corrected.increment();
+                    remember(fixed);
+                }
+            }
+        }
+    }
+
+    private static final class CachedCount {
+        private final long unread;
+        private final long revision;
+
+        private CachedCount(long unread, long revision) {
+            this.unread = unread;
+            this.revision = revision;
+        }
+    }
+}
@@ -39,9 +39,10 @@ public class UserService {
     private final Key jwtSecretKey;
     private final LearningProgressRepository learningProgressRepository;
     private final LearningPlanRepository learningPlanRepository;
+    private final RetryOnConflictExecutor retryOnConflictExecutor;
 
     @Autowired
-    public UserService(UserRepository userRepository, PostRepository postRepository, LearningProgressRepository progressRepository, LearningPlanRepository planRepository, BCryptPasswordEncoder bCryptPasswordEncoder, Key jwtSecretKey, LearningProgressRepository learningProgressRepository, LearningPlanService learningPlanService, LearningPlanRepository learningPlanRepository) {
+    public UserService(UserRepository userRepository, PostRepository postRepository, LearningProgressRepository progressRepository, LearningPlanRepository planRepository, BCryptPasswordEncoder bCryptPasswordEncoder, Key jwtSecretKey, LearningProgressRepository learningProgressRepository, LearningPlanService learningPlanService, LearningPlanRepository learningPlanRepository, RetryOnConflictExecutor retryOnConflictExecutor) {
         this.userRepository = userRepository;
         this.postRepository = postRepository;
         this.progressRepository = progressRepository;
@@ -50,6 +51,7 @@ public class UserService {
         this.jwtSecretKey = jwtSecretKey;
         this.learningProgressRepository = learningProgressRepository;
         this.learningPlanRepository = learningPlanRepository;
+        this.retryOnConflictExecutor = retryOnConflictExecutor;
     }
 
     public ResponseEntity<Object> createUser(User user) {
@@ -208,107 +210,120 @@ public class UserService {
 
     //update user profile
     public ResponseEntity<?> updateUserProfile(String userId, ProfileUpdateDTO profileDTO) {
-        Optional<User> userOpt = userRepository.findById(userId);
+        try {
+            return retryOnConflictExecutor.execute("updateUserProfile", () -> {
+                Optional<User> userOpt = userRepository.findById(userId);
 
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
-        }
+                if (userOpt.isEmpty()) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+                }
 
-        User user = userOpt.get();
+                User user = userOpt.get();
 
 
-        if (profileDTO.getName() != null && !profileDTO.getName().trim().isEmpty()) {
-            user.setName(profileDTO.getName());
-        }
+                if (profileDTO.getName() != null && !profileDTO.getName().trim().isEmpty()) {
+                    user.setName(profileDTO.getName());
+                }
 
-        if (profileDTO.getBio() != null) {
-            user.setBio(profileDTO.getBio());
-        }
+                if (profileDTO.getBio() != null) {
+                    user.setBio(profileDTO.getBio());
+                }
 
-        if (profileDTO.getSkills() != null) {
-            user.setSkills(profileDTO.getSkills());
-        }
+                if (profileDTO.getSkills() != null) {
+                    user.setSkills(profileDTO.getSkills());
+                }
 
-        if (profileDTO.getLocation() != null) {
-            user.setLocation(profileDTO.getLocation());
-        }
+                if (profileDTO.getLocation() != null) {
+                    user.setLocation(profileDTO.getLocation());
+                }
 
-        if (profileDTO.getProfileImage() != null) {
-            user.setProfileImage(profileDTO.getProfileImage());
-        }
+                if (profileDTO.getProfileImage() != null) {
+                    user.setProfileImage(profileDTO.getProfileImage());
+                }
         
-        if (profileDTO.getLearningGoals() != null) {
-            user.setLearningGoals(profileDTO.getLearningGoals());
-        }
+                if (profileDTO.getLearningGoals() != null) {
+                    user.setLearningGoals(profileDTO.getLearningGoals());
+                }
 
-        try {
-            User updatedUser = userRepository.save(user);
-            return ResponseEntity.ok(convertToProfileDTO(updatedUser));
+                User updatedUser = userRepository.save(user);
+                return ResponseEntity.ok(convertToProfileDTO(updatedUser));
+            });
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to update profile: " + e.getMessage());
         }
     }
 
-    //follow user
+    //follow user. both users are re-read on a write conflict; a retry after one of the two saves went
+    //through only adds the side that is still missing
     public ResponseEntity<?> followUser(String userId, String followerId) {
-        Optional<User> targetUserOpt = userRepository.findById(userId);
-        Optional<User> followerUserOpt = userRepository.findById(followerId);
-
-        if (targetUserOpt.isEmpty() || followerUserOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
-        }
+        try {
+            return retryOnConflictExecutor.execute("followUser", () -> {
+                Optional<User> targetUserOpt = userRepository.findById(userId);
+                Optional<User> followerUserOpt = userRepository.findById(followerId);
 
-        User targetUser = targetUserOpt.get();
-        User followerUser = followerUserOpt.get();
+                if (targetUserOpt.isEmpty() || followerUserOpt.isEmpty()) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+                }
 
-        //check if already following
-        if (targetUser.getFollowedUsers().contains(followerId) || followerUser.getFollowingUsers().contains(userId)) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Already following this user");
-        }
+                User targetUser = targetUserOpt.get();
+                User followerUser = followerUserOpt.get();
 
-        //update follower lists
-        targetUser.getFollowedUsers().add(followerId);
-        followerUser.getFollowingUsers().add(userId);
+                //check if already following
+                boolean targetHasFollower = targetUser.getFollowedUsers().contains(followerId);
+                boolean followerHasTarget = followerUser.getFollowingUsers().contains(userId);
+                if (targetHasFollower && followerHasTarget) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Already following this user");
+                }
 
-        try {
-            userRepository.save(targetUser);
-            userRepository.save(followerUser);
+                //update follower lists
+                if (!targetHasFollower) {
+                    targetUser.getFollowedUsers().add(followerId);
+                    targetUser = userRepository.save(targetUser);
+                }
+                if (!followerHasTarget) {
+                    followerUser.getFollowingUsers().add(userId);
+                    userRepository.save(followerUser);
+                }
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("message", "Successfully followed user");
-            response.put("user", convertToProfileDTO(targetUser));
+                Map<String, Object> response = new HashMap<>();
+                response.put("message", "Successfully followed user");
+                response.put("user", convertToProfileDTO(targetUser));
 
-            return ResponseEntity.ok(response);
+                return ResponseEntity.ok(response);
+            });
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to follow user: " + e.getMessage());
         }
     }
 
-    //unfollow user
+    //unfollow user, retried like followUser
     public ResponseEntity<?> unfollowUser(String userId, String followerId) {
-        Optional<User> targetUserOpt = userRepository.findById(userId);
-        Optional<User> followerUserOpt = userRepository.findById(followerId);
-
-        if (targetUserOpt.isEmpty() || followerUserOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
-        }
+        try {
+            return retryOnConflictExecutor.execute("unfollowUser", () -> {
+                Optional<User> targetUserOpt = userRepository.findById(userId);
+                Optional<User> followerUserOpt = userRepository.findById(followerId);
 
-        User targetUser = targetUserOpt.get();
-        User followerUser = followerUserOpt.get();
+                if (targetUserOpt.isEmpty() || followerUserOpt.isEmpty()) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+                }
 
-        //remove from follower lists
-        targetUser.getFollowedUsers().remove(followerId);
-        followerUser.getFollowingUsers().remove(userId);
+                User targetUser = targetUserOpt.get();
+                User followerUser = followerUserOpt.get();
 
-        try {
-            userRepository.save(targetUser);
-            userRepository.save(followerUser);
+                //remove from follower lists
+                if (targetUser.getFollowedUsers().remove(followerId)) {
+                    targetUser = userRepository.save(targetUser);
+                }
+                if (followerUser.getFollowingUsers().remove(userId)) {
+                    userRepository.save(followerUser);
+                }
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("message", "Successfully unfollowed user");
-            response.put("user", convertToProfileDTO(targetUser));
+                Map<String, Object> response = new HashMap<>();
+                response.put("message", "Successfully unfollowed user");
+                response.put("user", convertToProfileDTO(targetUser));
 
-            return ResponseEntity.ok(response);
+                return ResponseEntity.ok(response);
+            });
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to unfollow user: " + e.getMessage());
         }
@@ -341,8 +356,8 @@ public class UserService {
             return Collections.singletonMap("totalPosts", 0);
         }
 
-        int skillSharingPosts = postRepository.findByUserId(userId).size();
-        int learningProgressPosts = (int) learningProgressRepository.findByUserId(userId).size();
+        int skillSharingPosts = (int) postRepository.countByUserId(userId);
+        int learningProgressPosts = (int) learningProgressRepository.countByUserId(userId);
         int learningPlansPosts = (int) learningPlanRepository.findByUserId(userId).size();
 
         return Collections.singletonMap("totalPosts", skillSharingPosts + learningProgressPosts + learningPlansPosts);
@@ -362,25 +377,27 @@ public class UserService {
     }
     
     public ResponseEntity<?> addLearningGoal(String userId, LearningGoal learningGoal) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
-        }
+        try {
+            return retryOnConflictExecutor.execute("addLearningGoal", () -> {
+                Optional<User> userOpt = userRepository.findById(userId);
         
-        User user = userOpt.get();
+                if (userOpt.isEmpty()) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+                }
         
-        // Initialize learning goals list if null
-        if (user.getLearningGoals() == null) {
-            user.setLearningGoals(new ArrayList<>());
-        }
+                User user = userOpt.get();
         
-        // Add the new learning goal
-        user.getLearningGoals().add(learningGoal);
+                // Initialize learning goals list if null
+                if (user.getLearningGoals() == null) {
+                    user.setLearningGoals(new ArrayList<>());
+                }
         
-        try {
-            User updatedUser = userRepository.save(user);
-            return ResponseEntity.ok(updatedUser.getLearningGoals());
+                // Add the new learning goal
+                user.getLearningGoals().add(learningGoal);
+
+                User updatedUser = userRepository.save(user);
+                return ResponseEntity.ok(updatedUser.getLearningGoals());
+            });
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Failed to add learning goal: " + e.getMessage());
@@ -388,39 +405,41 @@ public class UserService {
     }
     
     public ResponseEntity<?> updateLearningGoal(String userId, String goalId, LearningGoal updatedGoal) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
-        }
+        try {
+            return retryOnConflictExecutor.execute("updateLearningGoal", () -> {
+                Optional<User> userOpt = userRepository.findById(userId);
         
-        User user = userOpt.get();
-        List<LearningGoal> goals = user.getLearningGoals();
+                if (userOpt.isEmpty()) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+                }
         
-        if (goals == null) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No learning goals found for this user");
-        }
+                User user = userOpt.get();
+                List<LearningGoal> goals = user.getLearningGoals();
         
-        // Find the goal to update
-        boolean goalFound = false;
-        for (int i = 0; i < goals.size(); i++) {
-            LearningGoal goal = goals.get(i);
-            if (goal.getId().equals(goalId)) {
-                // Preserve the original ID
-                updatedGoal.setId(goalId);
-                goals.set(i, updatedGoal);
-                goalFound = true;
-                break;
-            }
-        }
+                if (goals == null) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No learning goals found for this user");
+                }
         
-        if (!goalFound) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Learning goal not found");
-        }
+                // Find the goal to update
+                boolean goalFound = false;
+                for (int i = 0; i < goals.size(); i++) {
+                    LearningGoal goal = goals.get(i);
+                    if (goal.getId().equals(goalId)) {
+                        // Preserve the original ID
+                        updatedGoal.setId(goalId);
+                        goals.set(i, updatedGoal);
+                        goalFound = true;
+                        break;
+                    }
+                }
         
-        try {
-            User updatedUser = userRepository.save(user);
-            return ResponseEntity.ok(updatedUser.getLearningGoals());
+                if (!goalFound) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Learning goal not found");
+                }
+
+                User updatedUser = userRepository.save(user);
+                return ResponseEntity.ok(updatedUser.getLearningGoals());
+            });
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Failed to update learning goal: " + e.getMessage());
@@ -428,29 +447,31 @@ public class UserService {
     }
     
     public ResponseEntity<?> deleteLearningGoal(String userId, String goalId) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
-        }
+        try {
+            return retryOnConflictExecutor.execute("deleteLearningGoal", () -> {
+                Optional<User> userOpt = userRepository.findById(userId);
         
-        User user = userOpt.get();
-        List<LearningGoal> goals = user.getLearningGoals();
+                if (userOpt.isEmpty()) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+                }
         
-        if (goals == null) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No learning goals found for this user");
-        }
+                User user = userOpt.get();
+                List<LearningGoal> goals = user.getLearningGoals();
         
-        // Find and remove the goal
-        boolean removed = goals.removeIf(goal -> goal.getId().equals(goalId));
+                if (goals == null) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No learning goals found for this user");
+                }
         
-        if (!removed) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Learning goal not found");
-        }
+                // Find and remove the goal
+                boolean removed = goals.removeIf(goal -> goal.getId().equals(goalId));
         
-        try {
-            User updatedUser = userRepository.save(user);
-            return ResponseEntity.ok(updatedUser.getLearningGoals());
+                if (!removed) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Learning goal not found");
+                }
+
+                User updatedUser = userRepository.save(user);
+                return ResponseEntity.ok(updatedUser.getLearningGoals());
+            });
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Failed to delete learning goal: " + e.getMessage());
@@ -458,43 +479,45 @@ public class UserService {
     }
     
     public ResponseEntity<?> updateLearningGoalProgress(String userId, String goalId, Integer progressPercentage) {
-        Optional<User> userOpt = userRepository.findById(userId);
+        try {
+            return retryOnConflictExecutor.execute("updateLearningGoalProgress", () -> {
+                Optional<User> userOpt = userRepository.findById(userId);
         
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
-        }
+                if (userOpt.isEmpty()) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+                }
         
-        User user = userOpt.get();
-        List<LearningGoal> goals = user.getLearningGoals();
+                User user = userOpt.get();
+                List<LearningGoal> goals = user.getLearningGoals();
         
-        if (goals == null) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No learning goals found for this user");
-        }
+                if (goals == null) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No learning goals found for this user");
+                }
         
-        // Find the goal to update
-        boolean goalFound = false;
-        for (LearningGoal goal : goals) {
-            if (goal.getId().equals(goalId)) {
-                goal.setProgressPercentage(progressPercentage);
-                goal.setUpdatedAt(new Date());
+                // Find the goal to update
+                boolean goalFound = false;
+                for (LearningGoal goal : goals) {
+                    if (goal.getId().equals(goalId)) {
+                        goal.setProgressPercentage(progressPercentage);
+                        goal.setUpdatedAt(new Date());
                 
-                // If progress is 100%, mark as completed
-                if (progressPercentage == 100) {
-                    goal.setCompleted(true);
-                }
+                        // If progress is 100%, mark as completed
+                        if (progressPercentage == 100) {
+                            goal.setCompleted(true);
+                        }
                 
-                goalFound = true;
-                break;
-            }
-        }
-        
-        if (!goalFound) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Learning goal not found");
-        }
+                        goalFound = true;
+                        break;
+                    }
+                }
         
-        try {
-            User updatedUser = userRepository.save(user);
-            return ResponseEntity.ok(updatedUser.getLearningGoals());
+                if (!goalFound) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Learning goal not found");
+                }
+
+                User updatedUser = userRepository.save(user);
+                return ResponseEntity.ok(updatedUser.getLearningGoals());
+            });
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Failed to update learning goal progress: " + e.getMessage());
@@ -502,43 +525,45 @@ public class UserService {
     }
     
     public ResponseEntity<?> toggleLearningGoalCompletion(String userId, String goalId, Boolean completed) {
-        Optional<User> userOpt = userRepository.findById(userId);
+        try {
+            return retryOnConflictExecutor.execute("toggleLearningGoalCompletion", () -> {
+                Optional<User> userOpt = userRepository.findById(userId);
         
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
-        }
+                if (userOpt.isEmpty()) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+                }
         
-        User user = userOpt.get();
-        List<LearningGoal> goals = user.getLearningGoals();
+                User user = userOpt.get();
+                List<LearningGoal> goals = user.getLearningGoals();
         
-        if (goals == null) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No learning goals found for this user");
-        }
+                if (goals == null) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No learning goals found for this user");
+                }
         
-        // Find the goal to update
-        boolean goalFound = false;
-        for (LearningGoal goal : goals) {
-            if (goal.getId().equals(goalId)) {
-                goal.setCompleted(completed);
-                goal.setUpdatedAt(new Date());
+                // Find the goal to update
+                boolean goalFound = false;
+                for (LearningGoal goal : goals) {
+                    if (goal.getId().equals(goalId)) {
+                        goal.setCompleted(completed);
+                        goal.setUpdatedAt(new Date());
                 
-                // If completed, set progress to 100%
-                if (completed) {
-                    goal.setProgressPercentage(100);
-                }
+                        // If completed, set progress to 100%
+                        if (completed) {
+                            goal.setProgressPercentage(100);
+                        }
                 
-                goalFound = true;
-                break;
-            }
-        }
-        
-        if (!goalFound) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Learning goal not found");
-        }
+                        goalFound = true;
+                        break;
+                    }
+                }
         
-        try {
-            User updatedUser = userRepository.save(user);
-            return ResponseEntity.ok(updatedUser.getLearningGoals());
+                if (!goalFound) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Learning goal not found");
+                }
+
+                User updatedUser = userRepository.save(user);
+                return ResponseEntity.ok(updatedUser.getLearningGoals());
+            });
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Failed to update learning goal completion status: " + e.getMessage());
@@ -546,18 +571,20 @@ public class UserService {
     }
     
     public ResponseEntity<?> updateAllLearningGoals(String userId, List<LearningGoal> learningGoals) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
-        }
+        try {
+            return retryOnConflictExecutor.execute("updateAllLearningGoals", () -> {
+                Optional<User> userOpt = userRepository.findById(userId);
         
-        User user = userOpt.get();
-        user.setLearningGoals(learningGoals);
+                if (userOpt.isEmpty()) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+                }
         
-        try {
-            User updatedUser = userRepository.save(user);
-            return ResponseEntity.ok(updatedUser.getLearningGoals());
+                User user = userOpt.get();
+                user.setLearningGoals(learningGoals);
+
+                User updatedUser = userRepository.save(user);
+                return ResponseEntity.ok(updatedUser.getLearningGoals());
+            });
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Failed to update learning goals: " + e.getMessage());
@@ -0,0 +1,36 @@
+package com.example.Backend.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExportControllerTest {
+
+    @Test
+    void acceptsListedGzip() {
+        assertThat(ExportController.acceptsGzip("gzip")).isTrue();
+        assertThat(ExportController.acceptsGzip("deflate, GZIP;q=0.5")).isTrue();
+        assertThat(ExportController.acceptsGzip("br;q=1.0, x-gzip ; q=0.2")).isTrue();
+    }
+
+    @Test
+    void zeroQualityRefusesGzip() {
+        assertThat(ExportController.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(ExportController.acceptsGzip("gzip; q=0.000, deflate")).isFalse();
+        assertThat(ExportController.acceptsGzip("*, gzip;q=0")).isFalse();
+    }
+
+    @Test
+    void wildcardCoversGzipOnlyWhenItIsNotListed() {
+        assertThat(ExportController.acceptsGzip("*")).isTrue();
+        assertThat(ExportController.acceptsGzip("identity, *;q=0")).isFalse();
+    }
+
+    @Test
+    void otherOrMissingEncodingsAreNotGzip() {
+        assertThat(ExportController.acceptsGzip(null)).isFalse();
+        assertThat(ExportController.acceptsGzip("")).isFalse();
+        assertThat(ExportController.acceptsGzip("deflate, br")).isFalse();
+        assertThat(ExportController.acceptsGzip("gzip;q=abc")).isFalse();
+    }
+}
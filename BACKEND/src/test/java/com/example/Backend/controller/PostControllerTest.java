@@ -0,0 +1,40 @@
+package com.example.Backend.controller;
+
+import com.example.Backend.service.PostService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class PostControllerTest {
+
+    private final PostService postService = mock(PostService.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        PostController controller = new PostController();
+        ReflectionTestUtils.setField(controller, "postService", postService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new BadRequestHandler(), new NotFoundHandler())
+                .build();
+    }
+
+    @Test
+    void malformedFeedCursorIsABadRequest() throws Exception {
+        when(postService.getFeed(eq("garbage"), any())).thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        mockMvc.perform(get("/api/posts/feed").param("cursor", "garbage"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid cursor"));
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.Comment;
+import com.example.Backend.model.Post;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CommentServiceTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final CommentService commentService = new CommentService();
+    private final List<Query> guardedQueries = new ArrayList<>();
+    private final List<UpdateDefinition> guardedUpdates = new ArrayList<>();
+    private final List<Boolean> guardedResults = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(commentService, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(commentService, "inlineCount", 2);
+        ReflectionTestUtils.setField(commentService, "refreshAttempts", 3);
+        MongoConverter converter = mock(MongoConverter.class);
+        MappingContext<?, ?> mappingContext = mock(MappingContext.class);
+        MongoPersistentEntity<?> entity = mock(MongoPersistentEntity.class);
+        MongoPersistentProperty idProperty = mock(MongoPersistentProperty.class);
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        doReturn(mappingContext).when(converter).getMappingContext();
+        doReturn(entity).when(mappingContext).getRequiredPersistentEntity(Comment.class);
+        doReturn(idProperty).when(entity).getRequiredIdProperty();
+        when(idProperty.getFieldName()).thenReturn("_id");
+        when(mongoTemplate.getCollectionName(Post.class)).thenReturn("posts");
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(Comment.class))).thenReturn(comment("c2"));
+        when(mongoTemplate.find(any(Query.class), eq(Comment.class))).thenReturn(List.of(comment("c4"), comment("c3")));
+    }
+
+    @Test
+    void removedPreviewEntryIsRebuiltNewestLast() {
+        previewLosesEntry(true);
+        versions(7);
+        guardedUpdatesMatch(true);
+
+        assertThat(commentService.deleteComment(Post.class, "p1", "c2", "u1")).isNotNull();
+
+        assertThat(guardedQueries).hasSize(1);
+        assertThat(guardedQueries.get(0).getQueryObject().get("version")).isEqualTo(7);
+        List<?> preview = (List<?>) guardedUpdates.get(0).getUpdateObject().get("$set", Document.class).get("comments");
+        assertThat(preview).extracting(inlined -> ((Comment) inlined).getId()).containsExactly("c3", "c4");
+    }
+
+    @Test
+    void rebuildStartsOverWhenThePreviewChangedMeanwhile() {
+        previewLosesEntry(true);
+        versions(7, 8);
+        guardedUpdatesMatch(false, true);
+
+        commentService.deleteComment(Post.class, "p1", "c2", "u1");
+
+        assertThat(guardedQueries).extracting(query -> query.getQueryObject().get("version")).containsExactly(7, 8);
+    }
+
+    @Test
+    void rebuildGivesUpAfterRefreshAttempts() {
+        previewLosesEntry(true);
+        versions(7, 8, 9, 10);
+        guardedUpdatesMatch(false, false, false, false);
+
+        commentService.deleteComment(Post.class, "p1", "c2", "u1");
+
+        assertThat(guardedQueries).hasSize(3);
+    }
+
+    @Test
+    void commentOutsideThePreviewOnlyLowersTheCount() {
+        previewLosesEntry(false);
+
+        commentService.deleteComment(Post.class, "p1", "c2", "u1");
+
+        verify(mongoTemplate, never()).findOne(any(Query.class), eq(Document.class), anyString());
+        verify(mongoTemplate, times(2)).updateFirst(any(Query.class), any(UpdateDefinition.class), eq(Post.class));
+        assertThat(guardedQueries).isEmpty();
+    }
+
+    @Test
+    void nothingChangesWhenTheUserMayNotDelete() {
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(Comment.class))).thenReturn(null);
+
+        assertThat(commentService.deleteComment(Post.class, "p1", "c2", "stranger")).isNull();
+
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(UpdateDefinition.class), eq(Post.class));
+    }
+
+    //the $pull of the deleted comment modifies the parent only if the comment was in its preview; the
+    //version-guarded preview writes are recorded and answered from guardedResults
+    private void previewLosesEntry(boolean inPreview) {
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(Post.class)))
+                .thenAnswer(call -> {
+                    Query query = call.getArgument(0);
+                    if (query.getQueryObject().containsKey("comments.id")) {
+                        return UpdateResult.acknowledged(inPreview ? 1 : 0, inPreview ? 1L : 0L, null);
+                    }
+                    if (!query.getQueryObject().containsKey("version")) {
+                        return UpdateResult.acknowledged(1, 1L, null);
+                    }
+                    guardedQueries.add(query);
+                    guardedUpdates.add(call.getArgument(1));
+                    boolean matched = guardedResults.get(guardedQueries.size() - 1);
+                    return UpdateResult.acknowledged(matched ? 1 : 0, matched ? 1L : 0L, null);
+                });
+    }
+
+    private void guardedUpdatesMatch(Boolean... matched) {
+        guardedResults.addAll(List.of(matched));
+    }
+
+    private void versions(Integer... versions) {
+        List<Document> parents = new ArrayList<>();
+        for (Integer version : versions) {
+            parents.add(new Document("_id", "p1").append("version", version));
+        }
+        when(mongoTemplate.findOne(any(Query.class), eq(Document.class), eq("posts")))
+                .thenReturn(parents.get(0), parents.subList(1, parents.size()).toArray(new Document[0]));
+    }
+
+    private static Comment comment(String id) {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setParentId("p1");
+        comment.setCreatedAt(new Date());
+        return comment;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.Backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FeedCursorTest {
+
+    @Test
+    void decodesWhatItEncoded() {
+        FeedCursor cursor = new FeedCursor(new Date(1700000000123L), "65f1c0ffee:with:colons");
+
+        FeedCursor decoded = FeedCursor.decode(cursor.encode());
+
+        assertThat(decoded.getCreatedAt()).isEqualTo(new Date(1700000000123L));
+        assertThat(decoded.getId()).isEqualTo("65f1c0ffee:with:colons");
+    }
+
+    @Test
+    void encodesUrlSafeWithoutPadding() {
+        String token = new FeedCursor(new Date(1L), "??>>").encode();
+
+        assertThat(token).doesNotContain("+", "/", "=");
+    }
+
+    @Test
+    void missingCursorStartsFromTheNewest() {
+        assertThat(FeedCursor.decode(null)).isNull();
+        assertThat(FeedCursor.decode("  ")).isNull();
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThatThrownBy(() -> FeedCursor.decode("not base64!")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FeedCursor.decode(base64("no-separator")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FeedCursor.decode(base64("123:"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FeedCursor.decode(base64("abc:id"))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void clampsPageSize() {
+        assertThat(FeedCursor.clampPageSize(null, 20, 100)).isEqualTo(20);
+        assertThat(FeedCursor.clampPageSize(0, 20, 100)).isEqualTo(20);
+        assertThat(FeedCursor.clampPageSize(50, 20, 100)).isEqualTo(50);
+        assertThat(FeedCursor.clampPageSize(500, 20, 100)).isEqualTo(100);
+    }
+
+    private static String base64(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.Backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+    private final InvertedIndex index = new InvertedIndex();
+
+    @Test
+    void tokenizesLowercaseWithoutStopWordsOrSingleCharacters() {
+        assertThat(InvertedIndex.tokenize("The Spring-Boot API, a REST x guide!"))
+                .containsExactly("spring", "boot", "api", "rest", "guide");
+    }
+
+    @Test
+    void ranksMoreOccurrencesHigher() {
+        index.put("once", "java streams and lambdas in practice");
+        index.put("twice", "java streams, more java and lambdas");
+        index.put("other", "python basics");
+
+        assertThat(keys(index.search("java", 10, key -> true))).containsExactly("twice", "once");
+    }
+
+    @Test
+    void ranksRareTermsAboveCommonOnes() {
+        index.put("common", "spring tutorial");
+        index.put("rare", "kotlin tutorial");
+        index.put("a", "spring data");
+        index.put("b", "spring security");
+
+        assertThat(keys(index.search("spring kotlin", 10, key -> true))).first().isEqualTo("rare");
+    }
+
+    @Test
+    void ranksShorterDocumentsHigherForTheSameOccurrences() {
+        index.put("short", "docker compose");
+        index.put("long", "docker networking volumes images registries swarm orchestration");
+
+        assertThat(keys(index.search("docker", 10, key -> true))).containsExactly("short", "long");
+    }
+
+    @Test
+    void appliesFilterAndLimit() {
+        index.putAll(Map.of(
+                "POST:1", new String[]{"react hooks"},
+                "POST:2", new String[]{"react hooks hooks"},
+                "LEARNING_PROGRESS:3", new String[]{"react", "hooks"}));
+
+        List<InvertedIndex.Match> posts = index.search("hooks", 1, key -> key.startsWith("POST:"));
+
+        assertThat(keys(posts)).containsExactly("POST:2");
+    }
+
+    @Test
+    void reindexingAndRemovingReplaceEarlierContent() {
+        index.put("doc", "graphql schema");
+        index.put("doc", "grpc services");
+        index.put("gone", "graphql resolvers");
+        index.remove("gone");
+
+        assertThat(index.search("graphql", 10, key -> true)).isEmpty();
+        assertThat(keys(index.search("grpc", 10, key -> true))).containsExactly("doc");
+    }
+
+    private static List<String> keys(List<InvertedIndex.Match> matches) {
+        return matches.stream().map(InvertedIndex.Match::getKey).toList();
+    }
+}
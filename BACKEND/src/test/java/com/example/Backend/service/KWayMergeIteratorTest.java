@@ -0,0 +1,77 @@
+package com.example.Backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KWayMergeIteratorTest {
+
+    @Test
+    void mergesSortedSourcesInOrder() {
+        KWayMergeIterator<Integer> merged = new KWayMergeIterator<>(List.of(
+                List.of(9, 5, 1).iterator(),
+                List.of(8, 7, 2).iterator(),
+                List.of(6).iterator()), Comparator.reverseOrder());
+
+        assertThat(drain(merged)).containsExactly(9, 8, 7, 6, 5, 2, 1);
+    }
+
+    @Test
+    void skipsEmptySources() {
+        KWayMergeIterator<Integer> merged = new KWayMergeIterator<>(List.of(
+                Collections.<Integer>emptyIterator(),
+                List.of(1, 3).iterator(),
+                Collections.<Integer>emptyIterator()), Comparator.naturalOrder());
+
+        assertThat(drain(merged)).containsExactly(1, 3);
+    }
+
+    @Test
+    void noSourcesMeansNothingToIterate() {
+        KWayMergeIterator<Integer> merged = new KWayMergeIterator<>(List.of(), Comparator.naturalOrder());
+
+        assertThat(merged.hasNext()).isFalse();
+        assertThatThrownBy(merged::next).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    void holdsOnlyOneHeadPerSource() {
+        CountingIterator first = new CountingIterator(List.of(1, 4, 6));
+        CountingIterator second = new CountingIterator(List.of(2, 3, 5));
+        KWayMergeIterator<Integer> merged = new KWayMergeIterator<>(List.of(first, second), Comparator.naturalOrder());
+
+        assertThat(first.taken + second.taken).isEqualTo(2);
+        assertThat(merged.next()).isEqualTo(1);
+        assertThat(first.taken).isEqualTo(2);
+        assertThat(second.taken).isEqualTo(1);
+    }
+
+    private static List<Integer> drain(Iterator<Integer> iterator) {
+        List<Integer> values = new ArrayList<>();
+        iterator.forEachRemaining(values::add);
+        return values;
+    }
+
+    private static final class CountingIterator implements Iterator<Integer> {
+        private final Iterator<Integer> delegate;
+        private int taken;
+
+        private CountingIterator(List<Integer> values) {
+            this.delegate = values.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public Integer next() {
+            taken++;
+            return delegate.next();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.model.Like;
+import com.example.Backend.model.Post;
+import com.example.Backend.model.TimelineEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LikeServiceTest {
+
+    private static final String POST = TimelineEntry.TYPE_POST;
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final NotificationService notificationService = mock(NotificationService.class);
+    private final LikeIndex likeIndex = mock(LikeIndex.class);
+    private final LikeWriteBuffer likeWriteBuffer = mock(LikeWriteBuffer.class);
+    private final TrendingService trendingService = mock(TrendingService.class);
+    private final LikeService likeService = new LikeService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(likeService, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(likeService, "notificationService", notificationService);
+        ReflectionTestUtils.setField(likeService, "likeIndex", likeIndex);
+        ReflectionTestUtils.setField(likeService, "likeWriteBuffer", likeWriteBuffer);
+        ReflectionTestUtils.setField(likeService, "trendingService", trendingService);
+        when(likeWriteBuffer.offer(any(), anyString(), anyString(), anyBoolean()))
+                .thenReturn(LikeWriteBuffer.OfferResult.REJECTED);
+    }
+
+    @Test
+    void likeNotifiesTheOwner() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(Post.class))).thenReturn(post("owner", 1, List.of()));
+
+        Post liked = likeService.addLike(Post.class, POST, "Post", "p1", new Like("u1", null));
+
+        assertThat(liked.getLikeCount()).isEqualTo(1);
+        verify(likeIndex).recordLike("p1", "u1");
+        verify(trendingService).recordLike(eq(POST), eq("p1"), eq(1), any(Date.class));
+        verify(notificationService).createLikeNotification("p1", "owner", "u1");
+    }
+
+    @Test
+    void ownLikeDoesNotNotify() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(LearningProgress.class))).thenReturn(progress("owner"));
+
+        likeService.addLike(LearningProgress.class, TimelineEntry.TYPE_LEARNING_PROGRESS, "Learning progress", "l1",
+                new Like("owner", null));
+
+        verify(notificationService, never()).createLikeNotification(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void repeatedLikeReturnsTheStateWithoutCountingAgain() {
+        when(mongoTemplate.findOne(any(Query.class), eq(Post.class))).thenReturn(post("owner", 1, null));
+
+        Post state = likeService.addLike(Post.class, POST, "Post", "p1", new Like("u1", null));
+
+        assertThat(state.getLikeCount()).isEqualTo(1);
+        verifyNoInteractions(trendingService, notificationService);
+    }
+
+    @Test
+    void unlikeTakesOffTheScoreAtTheOriginalLikeTime() {
+        Date likedAt = new Date(1_000);
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class), eq(Post.class)))
+                .thenReturn(post("owner", 2, List.of(new Like("u1", likedAt))));
+
+        Post unliked = likeService.removeLike(Post.class, POST, "Post", "p1", "u1");
+
+        assertThat(unliked.getLikeCount()).isEqualTo(1);
+        assertThat(unliked.getLikes()).isNull();
+        verify(likeIndex).recordUnlike("p1", "u1");
+        verify(trendingService).recordLike(POST, "p1", -1, likedAt);
+    }
+
+    @Test
+    void missingParentIsReportedByName() {
+        assertThatThrownBy(() -> likeService.removeLike(LearningProgress.class,
+                TimelineEntry.TYPE_LEARNING_PROGRESS, "Learning progress", "l1", "u1"))
+                .isInstanceOf(NoSuchElementException.class)
+                .hasMessage("Learning progress not found");
+    }
+
+    @Test
+    void bufferedLikeIsOnlyScored() {
+        when(likeWriteBuffer.offer(Post.class, "p1", "u1", true)).thenReturn(LikeWriteBuffer.OfferResult.CHANGED);
+
+        assertThat(likeService.addLike(Post.class, POST, "Post", "p1", new Like("u1", null))).isNull();
+
+        verify(trendingService).recordLike(eq(POST), eq("p1"), eq(1), any(Date.class));
+        verifyNoInteractions(mongoTemplate, notificationService);
+    }
+
+    private static Post post(String ownerId, int likeCount, List<Like> likes) {
+        Post post = new Post();
+        post.setUserId(ownerId);
+        post.setLikeCount(likeCount);
+        post.setLikes(likes == null ? null : new ArrayList<>(likes));
+        return post;
+    }
+
+    private static LearningProgress progress(String ownerId) {
+        LearningProgress progress = new LearningProgress();
+        progress.setUserId(ownerId);
+        progress.setLikeCount(1);
+        return progress;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.Post;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LikeWriteBufferTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class, RETURNS_DEEP_STUBS);
+    private final BulkOperations bulk = mock(BulkOperations.class);
+    private final NotificationService notificationService = mock(NotificationService.class);
+    private final LikeIndex likeIndex = mock(LikeIndex.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class)).thenReturn(bulk);
+        when(mongoTemplate.query(Post.class).as(Document.class).matching(any(Query.class)).all())
+                .thenReturn(List.of(new Document("_id", "p1").append("userId", "owner")));
+        when(likeIndex.update(eq(Post.class), anyString(), anyString(), anyBoolean())).thenReturn(true);
+    }
+
+    @Test
+    void rejectsWhenDisabledOrFull() {
+        assertThat(buffer(false, 10).offer(Post.class, "p1", "u1", true))
+                .isEqualTo(LikeWriteBuffer.OfferResult.REJECTED);
+
+        LikeWriteBuffer full = buffer(true, 1);
+        assertThat(full.offer(Post.class, "p1", "u1", true)).isEqualTo(LikeWriteBuffer.OfferResult.CHANGED);
+        assertThat(full.offer(Post.class, "p2", "u1", true)).isEqualTo(LikeWriteBuffer.OfferResult.REJECTED);
+        //the key already held in the buffer is still accepted
+        assertThat(full.offer(Post.class, "p1", "u1", false)).isEqualTo(LikeWriteBuffer.OfferResult.CHANGED);
+    }
+
+    @Test
+    void togglesInOneWindowCollapseIntoOneWrite() {
+        LikeWriteBuffer buffer = buffer(true, 10);
+        buffer.offer(Post.class, "p1", "u1", true);
+        buffer.offer(Post.class, "p1", "u1", false);
+        buffer.offer(Post.class, "p1", "u1", true);
+
+        buffer.flush();
+
+        verify(bulk, times(1)).updateOne(any(Query.class), any(Update.class));
+        verify(bulk).execute();
+        verify(notificationService).createLikeNotification("p1", "owner", "u1");
+        assertThat(meterRegistry.counter("likes.write_behind.coalesced").count()).isEqualTo(2);
+    }
+
+    @Test
+    void likeThatIsUndoneInTheSameWindowDoesNotNotify() {
+        LikeWriteBuffer buffer = buffer(true, 10);
+        buffer.offer(Post.class, "p1", "u1", true);
+        buffer.offer(Post.class, "p1", "u1", false);
+
+        buffer.flush();
+
+        verify(notificationService, never()).createLikeNotification(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void failedBulkWriteIsRetriedAndNotifiesOnce() {
+        when(bulk.execute()).thenThrow(new RuntimeException("unavailable")).thenReturn(null);
+        LikeWriteBuffer buffer = buffer(true, 10);
+        buffer.offer(Post.class, "p1", "u1", true);
+
+        buffer.flush();
+        verify(notificationService, never()).createLikeNotification(anyString(), anyString(), anyString());
+
+        buffer.flush();
+        verify(bulk, times(2)).execute();
+        verify(notificationService, times(1)).createLikeNotification("p1", "owner", "u1");
+        assertThat(meterRegistry.counter("likes.write_behind.requeued").count()).isEqualTo(1);
+    }
+
+    @Test
+    void failedNotificationDoesNotRequeueStoredLikes() {
+        doThrow(new RuntimeException("unavailable"))
+                .when(notificationService).createLikeNotification(anyString(), anyString(), anyString());
+        LikeWriteBuffer buffer = buffer(true, 10);
+        buffer.offer(Post.class, "p1", "u1", true);
+
+        buffer.flush();
+        buffer.flush();
+
+        verify(bulk, times(1)).execute();
+        verify(notificationService, times(1)).createLikeNotification("p1", "owner", "u1");
+        assertThat(meterRegistry.counter("likes.write_behind.requeued").count()).isZero();
+    }
+
+    private LikeWriteBuffer buffer(boolean enabled, int maxPending) {
+        return new LikeWriteBuffer(mongoTemplate, notificationService, likeIndex, meterRegistry, enabled, maxPending);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.Backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MediaServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private MediaService mediaService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mediaService = new MediaService(directory.toString(), 1024);
+        ReflectionTestUtils.setField(mediaService, "objectMapper", new ObjectMapper());
+    }
+
+    @Test
+    void storesOggVideos() {
+        String dataUrl = "data:video/ogg;base64," + base64("ogg bytes");
+
+        String url = mediaService.externalizeDataUrls(List.of(dataUrl)).get(0);
+
+        assertThat(url).startsWith(MediaService.URL_PREFIX).endsWith(".ogv");
+        assertThat(mediaService.find(mediaService.mediaIdOf(url))).exists();
+    }
+
+    @Test
+    void storesTheSameBytesOnce() {
+        String dataUrl = "data:image/png;base64," + base64("png bytes");
+        String wrapped = "{\"dataUrl\":\"" + dataUrl + "\",\"type\":\"image\"}";
+
+        List<String> urls = mediaService.externalizeDataUrls(List.of(dataUrl, wrapped));
+
+        assertThat(urls.get(1)).contains(urls.get(0));
+    }
+
+    @Test
+    void leavesDataUrlsItCannotStoreInline() {
+        String unknownType = "data:audio/flac;base64," + base64("flac bytes");
+        String notBase64 = "data:text/plain,hello";
+        String wrapped = "{\"dataUrl\":\"" + unknownType + "\",\"type\":\"audio\"}";
+
+        List<String> urls = mediaService.externalizeDataUrls(List.of(unknownType, notBase64, wrapped,
+                "https://example.com/a.png"));
+
+        assertThat(urls).containsExactly(unknownType, notBase64, wrapped, "https://example.com/a.png");
+    }
+
+    private static String base64(String content) {
+        return Base64.getEncoder().encodeToString(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
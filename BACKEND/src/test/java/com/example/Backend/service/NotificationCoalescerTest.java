@@ -0,0 +1,282 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.Notification;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+//the upserts are applied to an in-memory store by a small evaluator for the pipeline operators the
+//coalescer uses, so folding, retries and the unread decision are checked end to end without a server
+class NotificationCoalescerTest {
+
+    private static final Map<String, String> NAMES = Map.of("u1", "User1", "u2", "User2", "u3", "User3");
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final BulkOperations bulk = mock(BulkOperations.class);
+    private final Map<String, Document> store = new LinkedHashMap<>();
+    private final NotificationCoalescer coalescer = new NotificationCoalescer(mongoTemplate, true, 1440, 2, 200);
+    private final Date now = new Date();
+
+    @BeforeEach
+    void setUp() {
+        MongoConverter converter = mock(MongoConverter.class);
+        when(converter.read(eq(Notification.class), any(Document.class))).thenAnswer(call -> new Notification());
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.getCollectionName(Notification.class)).thenReturn("notifications");
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Notification.class)).thenReturn(bulk);
+        when(bulk.upsert(any(Query.class), any(UpdateDefinition.class))).thenAnswer(call -> {
+            upsert(call.getArgument(0), call.getArgument(1));
+            return bulk;
+        });
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("notifications")))
+                .thenAnswer(call -> new ArrayList<>(store.values()));
+    }
+
+    @Test
+    void eventsOfOneWindowFoldIntoOneGroup() {
+        NotificationCoalescer.Result result = coalescer.write(
+                List.of(like("e1", "u1"), like("e2", "u2"), like("e3", "u3")), NAMES);
+
+        Document group = onlyGroup();
+        assertThat(group.get("count")).isEqualTo(3L);
+        assertThat(group.getString("message")).isEqualTo("User3 and 2 others liked your post.");
+        assertThat(group.getList("recentTriggers", Document.class)).extracting(t -> t.getString("userId"))
+                .containsExactly("u2", "u3");
+        assertThat(result.getNewlyUnread()).isEqualTo(Map.of("owner", 1L));
+    }
+
+    @Test
+    void storingTheSameEventsAgainChangesNothing() {
+        List<NotificationEvent> batch = List.of(like("e1", "u1"), like("e2", "u2"));
+        coalescer.write(batch, NAMES);
+        Document first = new Document(onlyGroup());
+
+        coalescer.write(batch, NAMES);
+        coalescer.write(List.of(like("e2", "u2")), NAMES);
+
+        assertThat(onlyGroup()).isEqualTo(first);
+        assertThat(first.get("count")).isEqualTo(2L);
+        assertThat(first.getString("message")).isEqualTo("User2 and 1 other liked your post.");
+    }
+
+    @Test
+    void onlyFreshEventsOfAPartlyAppliedBatchCount() {
+        coalescer.write(List.of(like("e1", "u1")), NAMES);
+
+        coalescer.write(List.of(like("e1", "u1"), like("e2", "u2")), NAMES);
+
+        assertThat(onlyGroup().get("count")).isEqualTo(2L);
+        assertThat(onlyGroup().getList("appliedIds", String.class)).containsExactly("e1", "e2");
+    }
+
+    @Test
+    void readGroupTurnsUnreadOnlyForNewEvents() {
+        coalescer.write(List.of(like("e1", "u1")), NAMES);
+        onlyGroup().put("read", true);
+
+        NotificationCoalescer.Result replayed = coalescer.write(List.of(like("e1", "u1")), NAMES);
+        assertThat(onlyGroup().getBoolean("read")).isTrue();
+        assertThat(replayed.getNewlyUnread()).isEmpty();
+
+        NotificationCoalescer.Result fresh = coalescer.write(List.of(like("e2", "u2")), NAMES);
+        assertThat(onlyGroup().getBoolean("read")).isFalse();
+        assertThat(fresh.getNewlyUnread()).isEqualTo(Map.of("owner", 1L));
+    }
+
+    @Test
+    void commentGroupsQuoteTheLatestComment() {
+        coalescer.write(List.of(comment("e1", "u1", "first"), comment("e2", "u2", "second")), NAMES);
+
+        assertThat(onlyGroup().getString("message"))
+                .isEqualTo("User2 and 1 other commented on your post: second");
+    }
+
+    private NotificationEvent like(String id, String userId) {
+        return new NotificationEvent(id, NotificationEvent.TYPE_LIKE, "p1", "owner", userId, null, now);
+    }
+
+    private NotificationEvent comment(String id, String userId, String content) {
+        return new NotificationEvent(id, NotificationEvent.TYPE_COMMENT, "p1", "owner", userId, content, now);
+    }
+
+    private Document onlyGroup() {
+        assertThat(store).hasSize(1);
+        return store.values().iterator().next();
+    }
+
+    private void upsert(Query query, UpdateDefinition update) {
+        Document filter = query.getQueryObject();
+        String key = filter.getString("userId") + "|" + filter.getString("groupKey");
+        Document document = store.getOrDefault(key, new Document(filter));
+        for (Document stage : ((AggregationUpdate) update).toPipeline(Aggregation.DEFAULT_CONTEXT)) {
+            document = Pipeline.apply(stage, document);
+        }
+        store.put(key, document);
+    }
+
+    //just the update stages and expression operators NotificationCoalescer builds
+    private static final class Pipeline {
+
+        static Document apply(Document stage, Document document) {
+            Document result = new Document(document);
+            if (stage.containsKey("$set")) {
+                stage.get("$set", Document.class).forEach((field, expression) ->
+                        result.put(field, eval(expression, document, Map.of())));
+            } else {
+                for (Object field : stage.getList("$unset", Object.class)) {
+                    result.remove((String) field);
+                }
+            }
+            return result;
+        }
+
+        @SuppressWarnings("unchecked")
+        static Object eval(Object expression, Document root, Map<String, Object> vars) {
+            if (expression instanceof String path && path.startsWith("$$")) {
+                String[] parts = path.substring(2).split("\\.", 2);
+                return parts.length == 1 ? vars.get(parts[0]) : resolve(vars.get(parts[0]), parts[1]);
+            }
+            if (expression instanceof String path && path.startsWith("$")) {
+                return resolve(root, path.substring(1));
+            }
+            if (expression instanceof List<?> list) {
+                List<Object> values = new ArrayList<>();
+                list.forEach(item -> values.add(eval(item, root, vars)));
+                return values;
+            }
+            if (!(expression instanceof Document document)) {
+                return expression;
+            }
+            String operator = document.keySet().iterator().next();
+            if (!operator.startsWith("$")) {
+                Document values = new Document();
+                document.forEach((field, value) -> values.put(field, eval(value, root, vars)));
+                return values;
+            }
+            Object argument = document.get(operator);
+            if (operator.equals("$literal")) {
+                return argument;
+            }
+            if (operator.equals("$filter") || operator.equals("$reduce")) {
+                Document spec = (Document) argument;
+                List<Object> input = (List<Object>) eval(spec.get("input"), root, vars);
+                if (operator.equals("$filter")) {
+                    String as = spec.getString("as") != null ? spec.getString("as") : "this";
+                    List<Object> kept = new ArrayList<>();
+                    for (Object item : input) {
+                        if (truthy(eval(spec.get("cond"), root, with(vars, as, item)))) {
+                            kept.add(item);
+                        }
+                    }
+                    return kept;
+                }
+                Object value = eval(spec.get("initialValue"), root, vars);
+                for (Object item : input) {
+                    value = eval(spec.get("in"), root, with(with(vars, "value", value), "this", item));
+                }
+                return value;
+            }
+            List<Object> args = argument instanceof List<?> list
+                    ? (List<Object>) eval(list, root, vars)
+                    : List.of(eval(argument, root, vars));
+            switch (operator) {
+                case "$not":
+                    return !truthy(args.get(0));
+                case "$and":
+                    return args.stream().allMatch(Pipeline::truthy);
+                case "$cond":
+                    return truthy(args.get(0)) ? args.get(1) : args.get(2);
+                case "$ifNull":
+                    return args.get(0) != null ? args.get(0) : args.get(1);
+                case "$in":
+                    return ((List<Object>) args.get(1)).contains(args.get(0));
+                case "$eq":
+                    return same(args.get(0), args.get(1));
+                case "$ne":
+                    return !same(args.get(0), args.get(1));
+                case "$gt":
+                    return ((Number) args.get(0)).longValue() > ((Number) args.get(1)).longValue();
+                case "$size":
+                    return ((List<Object>) args.get(0)).size();
+                case "$add":
+                    return ((Number) args.get(0)).longValue() + ((Number) args.get(1)).longValue();
+                case "$subtract":
+                    return ((Number) args.get(0)).longValue() - ((Number) args.get(1)).longValue();
+                case "$toString":
+                    return String.valueOf(args.get(0));
+                case "$concat":
+                    StringBuilder text = new StringBuilder();
+                    args.forEach(text::append);
+                    return text.toString();
+                case "$max":
+                    return args.stream().filter(Objects::nonNull).map(value -> (Date) value)
+                            .max(Comparator.naturalOrder()).orElse(null);
+                case "$arrayElemAt": {
+                    List<Object> array = (List<Object>) args.get(0);
+                    int index = ((Number) args.get(1)).intValue();
+                    index = index < 0 ? array.size() + index : index;
+                    return index >= 0 && index < array.size() ? array.get(index) : null;
+                }
+                case "$slice": {
+                    List<Object> array = (List<Object>) args.get(0);
+                    int count = ((Number) args.get(1)).intValue();
+                    return new ArrayList<>(array.subList(Math.max(0, array.size() + count), array.size()));
+                }
+                case "$concatArrays": {
+                    List<Object> joined = new ArrayList<>();
+                    args.forEach(array -> joined.addAll((List<Object>) array));
+                    return joined;
+                }
+                default:
+                    throw new IllegalArgumentException("Unsupported operator " + operator);
+            }
+        }
+
+        //a path through an array maps over its elements, like "$_fresh.id"
+        private static Object resolve(Object value, String path) {
+            for (String part : path.split("\\.")) {
+                if (value instanceof List<?> list) {
+                    List<Object> mapped = new ArrayList<>();
+                    for (Object item : list) {
+                        mapped.add(((Document) item).get(part));
+                    }
+                    value = mapped;
+                } else {
+                    value = value == null ? null : ((Document) value).get(part);
+                }
+            }
+            return value;
+        }
+
+        private static Map<String, Object> with(Map<String, Object> vars, String name, Object value) {
+            Map<String, Object> extended = new HashMap<>(vars);
+            extended.put(name, value);
+            return extended;
+        }
+
+        private static boolean same(Object a, Object b) {
+            if (a instanceof Number x && b instanceof Number y) {
+                return x.longValue() == y.longValue();
+            }
+            return Objects.equals(a, b);
+        }
+
+        private static boolean truthy(Object value) {
+            return value != null && !Boolean.FALSE.equals(value)
+                    && !(value instanceof Number number && number.longValue() == 0);
+        }
+    }
+}
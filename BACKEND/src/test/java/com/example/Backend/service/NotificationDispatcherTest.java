@@ -0,0 +1,126 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.Notification;
+import com.example.Backend.model.User;
+import com.example.Backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NotificationDispatcherTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final BulkOperations bulk = mock(BulkOperations.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final NotificationCoalescer coalescer = mock(NotificationCoalescer.class);
+    private final NotificationStream stream = mock(NotificationStream.class);
+    private final UnreadCounterService unreadCounters = mock(UnreadCounterService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final NotificationJournal journal =
+            new NotificationJournal(meterRegistry, false, "unused", 4096, 1, 1000);
+
+    private NotificationDispatcher started;
+
+    @BeforeEach
+    void setUp() {
+        User liker = new User();
+        liker.setId("liker");
+        liker.setName("Liker");
+        when(userRepository.findAllById(any())).thenReturn(List.of(liker));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Notification.class)).thenReturn(bulk);
+        when(bulk.insert(anyList())).thenReturn(bulk);
+    }
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        if (started != null) {
+            started.stop();
+        }
+    }
+
+    @Test
+    void callerWritesWhenTheQueueIsFull() {
+        NotificationDispatcher dispatcher = dispatcher(NotificationDispatcher.OverflowPolicy.CALLER_RUNS);
+        dispatcher.submit(NotificationEvent.like("p1", "owner", "liker"));
+        dispatcher.submit(NotificationEvent.like("p2", "owner", "liker"));
+
+        ArgumentCaptor<List<Notification>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(bulk).insert(inserted.capture());
+        assertThat(inserted.getValue()).extracting(Notification::getPostId).containsExactly("p2");
+        verify(unreadCounters).adjust(Map.of("owner", 1L));
+        assertThat(meterRegistry.counter("notifications.enqueued").count()).isEqualTo(1);
+    }
+
+    @Test
+    void dropPolicyDiscardsWhenTheQueueIsFull() {
+        NotificationDispatcher dispatcher = dispatcher(NotificationDispatcher.OverflowPolicy.DROP);
+        dispatcher.submit(NotificationEvent.like("p1", "owner", "liker"));
+        dispatcher.submit(NotificationEvent.like("p2", "owner", "liker"));
+
+        verify(bulk, never()).insert(anyList());
+        assertThat(meterRegistry.counter("notifications.dropped").count()).isEqualTo(1);
+    }
+
+    @Test
+    void eventsOfDeletedUsersAreSkipped() {
+        NotificationDispatcher dispatcher = dispatcher(NotificationDispatcher.OverflowPolicy.CALLER_RUNS);
+        dispatcher.submit(NotificationEvent.like("p1", "owner", "liker"));
+        dispatcher.submit(NotificationEvent.like("p2", "owner", "deleted"));
+
+        verify(bulk, never()).insert(anyList());
+        assertThat(meterRegistry.counter("notifications.skipped").count()).isEqualTo(1);
+    }
+
+    @Test
+    void workerRetriesAFailedBatch() throws Exception {
+        when(bulk.execute()).thenThrow(new RuntimeException("unavailable")).thenReturn(null);
+        started = dispatcher(NotificationDispatcher.OverflowPolicy.CALLER_RUNS);
+        started.start();
+
+        started.submit(NotificationEvent.like("p1", "owner", "liker"));
+
+        awaitWritten(1);
+        assertThat(meterRegistry.counter("notifications.retried").count()).isEqualTo(1);
+        verify(unreadCounters).adjust(Map.of("owner", 1L));
+    }
+
+    @Test
+    void workerPublishesToSubscribedOwners() throws Exception {
+        when(stream.isSubscribed("owner")).thenReturn(true);
+        started = dispatcher(NotificationDispatcher.OverflowPolicy.CALLER_RUNS);
+        started.start();
+
+        started.submit(NotificationEvent.comment("p1", "owner", "liker", "nice"));
+
+        awaitWritten(1);
+        ArgumentCaptor<List<Notification>> published = ArgumentCaptor.forClass(List.class);
+        verify(stream).publish(published.capture());
+        assertThat(published.getValue()).extracting(Notification::getUserId).containsExactly("owner");
+    }
+
+    //queue capacity 1 so the second submit of an unstarted dispatcher overflows
+    private NotificationDispatcher dispatcher(NotificationDispatcher.OverflowPolicy policy) {
+        return new NotificationDispatcher(mongoTemplate, userRepository, journal, coalescer, stream, unreadCounters,
+                meterRegistry, 1, 10, policy, 0, 3, 1, 1);
+    }
+
+    private void awaitWritten(double count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.counter("notifications.written").count() < count
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(meterRegistry.counter("notifications.written").count()).isEqualTo(count);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.Backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<NotificationJournal> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeJournals() throws InterruptedException {
+        for (NotificationJournal journal : opened) {
+            journal.close();
+        }
+    }
+
+    @Test
+    void replaysEventsThatWereNeverAcknowledged() throws Exception {
+        NotificationJournal journal = open(4096, new ArrayList<>());
+        List<NotificationEvent> appended = List.of(event("a"), event("b"), event("c"));
+        for (NotificationEvent event : appended) {
+            journal.append(event);
+        }
+        assertThat(appended).extracting(NotificationEvent::getSequence).containsExactly(1L, 2L, 3L);
+        journal.close();
+
+        List<NotificationEvent> replayed = new ArrayList<>();
+        open(4096, replayed);
+
+        assertThat(replayed).extracting(NotificationEvent::getId).containsExactly("a", "b", "c");
+        assertThat(replayed.get(0).getOwnerId()).isEqualTo("owner");
+        assertThat(replayed.get(0).getCommentContent()).isNull();
+        assertThat(replayed.get(0).getCreatedAt()).isEqualTo(new Date(1000));
+    }
+
+    @Test
+    void skipsAcknowledgedEventsOnReplay() throws Exception {
+        NotificationJournal journal = open(4096, new ArrayList<>());
+        NotificationEvent first = event("a");
+        NotificationEvent second = event("b");
+        NotificationEvent third = event("c");
+        journal.append(first);
+        journal.append(second);
+        journal.append(third);
+        journal.acknowledge(List.of(first, second));
+        assertThat(journal.acknowledgedSequence()).isEqualTo(2);
+        journal.close();
+
+        List<NotificationEvent> replayed = new ArrayList<>();
+        NotificationJournal reopened = open(4096, replayed);
+
+        assertThat(replayed).extracting(NotificationEvent::getId).containsExactly("c");
+        NotificationEvent next = event("d");
+        reopened.append(next);
+        assertThat(next.getSequence()).isEqualTo(4);
+    }
+
+    @Test
+    void stopsAtATornRecord() throws Exception {
+        NotificationJournal journal = open(4096, new ArrayList<>());
+        journal.append(event("a"));
+        journal.append(event("b"));
+        journal.close();
+
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer length = ByteBuffer.allocate(4);
+            channel.read(length, 0);
+            int secondPayload = 8 + length.flip().getInt() + 8;
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), secondPayload + 2);
+        }
+
+        List<NotificationEvent> replayed = new ArrayList<>();
+        open(4096, replayed);
+
+        assertThat(replayed).extracting(NotificationEvent::getId).containsExactly("a");
+    }
+
+    @Test
+    void deletesSegmentsOnceEverythingInThemIsAcknowledged() throws Exception {
+        NotificationJournal journal = open(256, new ArrayList<>());
+        List<NotificationEvent> appended = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            NotificationEvent event = event("event-" + i);
+            journal.append(event);
+            appended.add(event);
+        }
+        assertThat(segments()).hasSizeGreaterThan(2);
+
+        journal.acknowledge(appended.subList(0, 11));
+        assertThat(segments()).hasSize(1);
+        journal.acknowledge(appended.subList(11, 12));
+        journal.close();
+
+        List<NotificationEvent> replayed = new ArrayList<>();
+        open(256, replayed);
+
+        assertThat(replayed).isEmpty();
+    }
+
+    private NotificationJournal open(int segmentBytes, List<NotificationEvent> replayed) throws IOException {
+        NotificationJournal journal = new NotificationJournal(new SimpleMeterRegistry(), true, directory.toString(),
+                segmentBytes, 1, 1000);
+        journal.open(replayed::addAll, 10);
+        opened.add(journal);
+        return journal;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith("segment-")).sorted().toList();
+        }
+    }
+
+    private static NotificationEvent event(String id) {
+        return new NotificationEvent(id, NotificationEvent.TYPE_LIKE, "post", "owner", "liker", null, new Date(1000));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.Backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RetryOnConflictExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RetryOnConflictExecutor executor = new RetryOnConflictExecutor(meterRegistry, 3, 1, 2);
+
+    @Test
+    void rerunsTheActionAfterALostRace() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = executor.execute("edit", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("stale version");
+            }
+            return "saved";
+        });
+
+        assertThat(result).isEqualTo("saved");
+        assertThat(calls).hasValue(3);
+        assertThat(meterRegistry.counter("concurrency.conflicts", "operation", "edit").count()).isEqualTo(2);
+        assertThat(outcomes("edit", "success")).isEqualTo(1);
+        assertThat(meterRegistry.summary("concurrency.attempts", "operation", "edit").totalAmount()).isEqualTo(3);
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> executor.execute("edit", () -> {
+            calls.incrementAndGet();
+            throw new OptimisticLockingFailureException("stale version");
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(calls).hasValue(3);
+        assertThat(outcomes("edit", "exhausted")).isEqualTo(1);
+    }
+
+    @Test
+    void otherFailuresAreNotRetried() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> executor.execute("edit", () -> {
+            calls.incrementAndGet();
+            throw new IllegalArgumentException("bad input");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(calls).hasValue(1);
+        assertThat(meterRegistry.counter("concurrency.conflicts", "operation", "edit").count()).isZero();
+    }
+
+    private double outcomes(String operation, String outcome) {
+        return meterRegistry.counter("concurrency.outcomes", "operation", operation, "outcome", outcome).count();
+    }
+}
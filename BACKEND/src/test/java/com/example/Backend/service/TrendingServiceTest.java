@@ -0,0 +1,150 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.Comment;
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.model.Like;
+import com.example.Backend.model.Post;
+import com.example.Backend.model.TimelineEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TrendingServiceTest {
+
+    private static final String POST = TimelineEntry.TYPE_POST;
+    private static final long HOUR = 3_600_000L;
+
+    private final ActivityHydrator activityHydrator = mock(ActivityHydrator.class);
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final TrendingService trendingService = new TrendingService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(trendingService, "activityHydrator", activityHydrator);
+        ReflectionTestUtils.setField(trendingService, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(trendingService, "warmupDays", 7);
+        ReflectionTestUtils.setField(trendingService, "halfLifeHours", 24d);
+        ReflectionTestUtils.setField(trendingService, "capacity", 100);
+        ReflectionTestUtils.setField(trendingService, "likeWeight", 1d);
+        ReflectionTestUtils.setField(trendingService, "commentWeight", 3d);
+        ReflectionTestUtils.setField(trendingService, "maxLimit", 100);
+        when(activityHydrator.hydrate(anyList())).thenReturn(List.of());
+    }
+
+    @Test
+    void olderEngagementDecaysByHalfLife() {
+        //three likes two half-lives ago are worth 0.75 of a like now
+        Date twoDaysAgo = hoursAgo(48);
+        for (int i = 0; i < 3; i++) {
+            trendingService.recordLike(POST, "old", 1, twoDaysAgo);
+        }
+        trendingService.recordLike(POST, "fresh", 1, null);
+        trendingService.recordLike(POST, "older", 1, hoursAgo(72));
+
+        assertThat(trending(null)).containsExactly("fresh", "old", "older");
+    }
+
+    @Test
+    void commentsWeighMoreThanLikes() {
+        Date now = new Date();
+        trendingService.recordLike(POST, "liked", 1, now);
+        trendingService.recordLike(POST, "liked", 1, now);
+        trendingService.recordComment(POST, "commented", 1, now);
+
+        assertThat(trending(null)).containsExactly("commented", "liked");
+    }
+
+    @Test
+    void takingBackEngagementAtItsOriginalTimeRemovesExactlyItsWeight() {
+        Date likedAt = hoursAgo(30);
+        trendingService.recordLike(POST, "unliked", 1, likedAt);
+        trendingService.recordLike(POST, "kept", 1, hoursAgo(60));
+        trendingService.recordLike(POST, "unliked", -1, likedAt);
+
+        assertThat(trending(null)).containsExactly("kept");
+    }
+
+    @Test
+    void removedEntriesDisappearBeforeTheNextRefresh() {
+        trendingService.recordLike(POST, "deleted", 1, null);
+        trendingService.recordLike(POST, "kept", 1, hoursAgo(1));
+        trendingService.refreshRanking();
+
+        trendingService.remove(POST, "deleted");
+
+        assertThat(trendingWithoutRefresh(null)).containsExactly("kept");
+    }
+
+    @Test
+    void keepsOnlyTheTopCapacityEntries() {
+        ReflectionTestUtils.setField(trendingService, "capacity", 2);
+        trendingService.recordLike(POST, "first", 3, null);
+        trendingService.recordLike(POST, "second", 2, null);
+        trendingService.recordLike(POST, "third", 1, null);
+
+        assertThat(trending(null)).containsExactly("first", "second");
+    }
+
+    @Test
+    void filtersByEntryType() {
+        trendingService.recordLike(POST, "post", 1, null);
+        trendingService.recordLike(TimelineEntry.TYPE_LEARNING_PROGRESS, "progress", 2, null);
+
+        assertThat(trending(POST)).containsExactly("post");
+    }
+
+    @Test
+    void warmUpSeedsEachLikeAndCommentAtTheTimeItWasMade() {
+        Date likedAt = hoursAgo(1);
+        Post post = new Post();
+        post.setId("old");
+        post.setCreatedAt(hoursAgo(48));
+        post.setLikes(new ArrayList<>(List.of(new Like("u1", likedAt), new Like("u2", likedAt))));
+        Comment comment = new Comment();
+        comment.setParentId("old");
+        comment.setCreatedAt(hoursAgo(2));
+        when(mongoTemplate.stream(any(Query.class), eq(Post.class))).thenReturn(Stream.of(post));
+        when(mongoTemplate.stream(any(Query.class), eq(LearningProgress.class))).thenReturn(Stream.empty());
+        when(mongoTemplate.stream(any(Query.class), eq(Comment.class))).thenReturn(Stream.of(comment));
+        trendingService.warmUp();
+
+        //seeded at the entry's creation the unlike would take off more than the seed and drop the entry
+        trendingService.recordLike(POST, "old", -1, likedAt);
+        trendingService.recordComment(POST, "old", -1, comment.getCreatedAt());
+        trendingService.recordLike(POST, "live", 1, hoursAgo(2));
+
+        assertThat(trending(null)).containsExactly("old", "live");
+    }
+
+    private List<String> trending(String type) {
+        trendingService.refreshRanking();
+        return trendingWithoutRefresh(type);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> trendingWithoutRefresh(String type) {
+        clearInvocations(activityHydrator);
+        trendingService.getTrending(null, type);
+        ArgumentCaptor<List<TimelineEntry>> refs = ArgumentCaptor.forClass(List.class);
+        verify(activityHydrator).hydrate(refs.capture());
+        return refs.getValue().stream().map(TimelineEntry::getEntryId).toList();
+    }
+
+    private static Date hoursAgo(int hours) {
+        return new Date(System.currentTimeMillis() - hours * HOUR);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.Notification;
+import com.example.Backend.model.UnreadCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UnreadCounterServiceTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UnreadCounterService service = new UnreadCounterService(mongoTemplate, meterRegistry, 100, 10);
+
+    @Test
+    void servesRepeatedReadsFromTheCache() {
+        when(mongoTemplate.findById("u1", UnreadCounter.class)).thenReturn(counter("u1", 3, 1));
+
+        assertThat(service.getUnreadCount("u1")).isEqualTo(3);
+        assertThat(service.getUnreadCount("u1")).isEqualTo(3);
+
+        verify(mongoTemplate, times(1)).findById("u1", UnreadCounter.class);
+        assertThat(meterRegistry.counter("notifications.unread.cache.hits").count()).isEqualTo(1);
+    }
+
+    @Test
+    void buildsAMissingCounterFromTheNotifications() {
+        countedUnread("u1", 4);
+        when(findAndModify()).thenReturn(counter("u1", 4, 0));
+
+        assertThat(service.getUnreadCount("u1")).isEqualTo(4);
+
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class),
+                eq(UnreadCounter.class));
+        assertThat(update.getValue().getUpdateObject().get("$setOnInsert", Document.class).get("unread"))
+                .isEqualTo(4L);
+    }
+
+    @Test
+    void aStaleRevisionNeverReplacesTheCachedCount() {
+        when(mongoTemplate.findById("u1", UnreadCounter.class)).thenReturn(counter("u1", 2, 5));
+        service.getUnreadCount("u1");
+
+        when(findAndModify()).thenReturn(counter("u1", 9, 4));
+        service.adjust(Map.of("u1", 1L));
+        assertThat(service.getUnreadCount("u1")).isEqualTo(2);
+
+        when(findAndModify()).thenReturn(counter("u1", 3, 6));
+        service.adjust(Map.of("u1", 1L));
+        assertThat(service.getUnreadCount("u1")).isEqualTo(3);
+    }
+
+    @Test
+    void usersWithoutACounterAreNotCreatedByAdjust() {
+        when(findAndModify()).thenReturn(null);
+
+        service.adjust(Map.of("u1", 1L, "u2", 0L));
+
+        ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoTemplate, times(1)).findAndModify(any(Query.class), any(UpdateDefinition.class),
+                options.capture(), eq(UnreadCounter.class));
+        assertThat(options.getValue().isUpsert()).isFalse();
+    }
+
+    @Test
+    void reconcileCorrectsDriftAtTheRevisionItRead() {
+        when(mongoTemplate.findById("u1", UnreadCounter.class)).thenReturn(counter("u1", 5, 2));
+        service.getUnreadCount("u1");
+        when(mongoTemplate.find(any(Query.class), eq(UnreadCounter.class))).thenReturn(List.of(counter("u1", 5, 2)));
+        countedUnread("u1", 3);
+        when(findAndModify()).thenReturn(counter("u1", 3, 3));
+
+        service.reconcile();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findAndModify(query.capture(), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(UnreadCounter.class));
+        assertThat(query.getValue().getQueryObject().get("revision")).isEqualTo(2L);
+        assertThat(service.getUnreadCount("u1")).isEqualTo(3);
+        assertThat(meterRegistry.counter("notifications.unread.corrected").count()).isEqualTo(1);
+    }
+
+    @Test
+    void reconcileLeavesMatchingCountersAlone() {
+        when(mongoTemplate.findById("u1", UnreadCounter.class)).thenReturn(counter("u1", 3, 2));
+        service.getUnreadCount("u1");
+        when(mongoTemplate.find(any(Query.class), eq(UnreadCounter.class))).thenReturn(List.of(counter("u1", 3, 2)));
+        countedUnread("u1", 3);
+
+        service.reconcile();
+
+        verify(mongoTemplate, never()).findAndModify(any(Query.class), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(UnreadCounter.class));
+    }
+
+    private UnreadCounter findAndModify() {
+        return mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(UnreadCounter.class));
+    }
+
+    private void countedUnread(String userId, long unread) {
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(Notification.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(new Document("_id", userId).append("unread", unread)),
+                        new Document()));
+    }
+
+    private static UnreadCounter counter(String userId, long unread, long revision) {
+        UnreadCounter counter = new UnreadCounter();
+        counter.setId(userId);
+        counter.setUnread(unread);
+        counter.setRevision(revision);
+        return counter;
+    }
+}
@@ -153,7 +153,7 @@ const SkillSharingFeed = () => {
                 if (post.id === postId) {
                     return {
                         ...post,
-                        comments: post.comments.map((comment) => {
+                        comments: (post.comments || []).map((comment) => {
                             if (comment.id === commentId) {
                                 return {
                                     ...comment,
@@ -176,9 +176,10 @@ const SkillSharingFeed = () => {
                 if (post.id === postId) {
                     return {
                         ...post,
-                        comments: post.comments.filter(
+                        comments: (post.comments || []).filter(
                             (comment) => comment.id !== commentId
                         ),
+                        commentCount: Math.max(0, (post.commentCount ?? post.comments?.length ?? 1) - 1),
                     };
                 }
                 return post;
@@ -202,7 +203,7 @@ const SkillSharingFeed = () => {
             case 'popular':
                 // Sort by most comments
                 filteredPosts.sort((a, b) =>
-                    (b.comments?.length || 0) - (a.comments?.length || 0)
+                    (b.commentCount ?? b.comments?.length ?? 0) - (a.commentCount ?? a.comments?.length ?? 0)
                 );
                 break;
             case 'latest':
@@ -77,6 +77,14 @@ export const addComment = async (progressId, commentData, token) => {
   );
 };
 
+//get one page of an entry's comments, newest first
+export const getLearningProgressComments = async (progressId, cursor, token) => {
+  const apiClient = createApiClient(token);
+  return apiClient.get(`/learning-progress/${progressId}/comments`, {
+    params: cursor ? { cursor } : {},
+  });
+};
+
 //update comment
 export const updateLearningProgressComment = async (
   progressId,
@@ -69,6 +69,14 @@ export const addComment = async (postId, commentData, token) => {
   return apiClient.post(`/posts/${postId}/comments`, commentData);
 };
 
+//get one page of a post's comments, newest first
+export const getComments = async (postId, cursor, token) => {
+  const apiClient = createApiClient(token);
+  return apiClient.get(`/posts/${postId}/comments`, {
+    params: cursor ? { cursor } : {},
+  });
+};
+
 //update comment
 export const updateComment = async (postId, commentId, commentData, token) => {
   const apiClient = createApiClient(token);
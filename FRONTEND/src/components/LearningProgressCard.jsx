@@ -6,6 +6,8 @@ import useConfirmModal from "../hooks/useConfirmModal";
 import ConfirmModal from "./ConfirmModal";
 import UserAvatar from "./UserAvatar";
 import { Link } from "react-router-dom";
+import usePagedComments from "../hooks/usePagedComments";
+import { getLearningProgressComments } from "../api/learningProgressAPI";
 
 // status options for display with updated styling for TaskHive theme
 const STATUS_OPTIONS = {
@@ -42,6 +44,8 @@ const LearningProgressCard = ({
                                 token,
                               }) => {
   const [showComments, setShowComments] = useState(false);
+  const commentCount = progress.commentCount ?? progress.comments?.length ?? 0;
+  const thread = usePagedComments(getLearningProgressComments, progress.id, token, showComments, commentCount);
   const { modalState, openModal, closeModal } = useConfirmModal();
 
   const isLikedByUser = progress.likes?.some(
@@ -62,6 +66,23 @@ const LearningProgressCard = ({
     }
   };
 
+  // The parent saves the change, the loaded thread is updated once it succeeded
+  const handleUpdateComment = async (progressId, commentId, newContent) => {
+    const updated = await onUpdateComment(progressId, commentId, newContent);
+    if (updated) {
+      thread.updateComment(commentId, newContent);
+    }
+    return updated;
+  };
+
+  const handleDeleteComment = async (progressId, commentId) => {
+    const deleted = await onDeleteComment(progressId, commentId);
+    if (deleted) {
+      thread.removeComment(commentId);
+    }
+    return deleted;
+  };
+
   //get the template and status info
   const templateInfo = TEMPLATE_TYPES[progress.templateType] || {
     icon: <Award size={16} className="mr-1.5" />,
@@ -212,7 +233,7 @@ const LearningProgressCard = ({
                 whileTap={{ scale: 0.95 }}
             >
               <MessageSquare size={18} />
-              <span>{progress.comments?.length || 0}</span>
+              <span>{commentCount}</span>
             </motion.button>
           </div>
         </div>
@@ -229,24 +250,35 @@ const LearningProgressCard = ({
 
               {/* Comments List */}
               <div className="space-y-3 max-h-64 overflow-y-auto mt-4 scrollbar-thin scrollbar-thumb-gray-700 scrollbar-track-transparent pr-2">
-                {progress.comments && progress.comments.length > 0 ? (
-                    progress.comments.map((comment) => (
+                {thread.comments.length > 0 ? (
+                    thread.comments.map((comment) => (
                         <Comment
                             key={comment.id}
                             comment={comment}
                             postId={progress.id}
                             currentUser={currentUser}
                             postUserId={progress.userId}
-                            onCommentUpdated={onUpdateComment}
-                            onCommentDeleted={onDeleteComment}
+                            onCommentUpdated={handleUpdateComment}
+                            onCommentDeleted={handleDeleteComment}
                             token={token}
                             commentType="LEARNING_PROGRESS"
                         />
                     ))
                 ) : (
-                    <p className="text-center text-gray-500 py-3">
-                      No comments yet. Be the first to comment!
-                    </p>
+                    !thread.loading && (
+                        <p className="text-center text-gray-500 py-3">
+                          No comments yet. Be the first to comment!
+                        </p>
+                    )
+                )}
+                {thread.hasMore && (
+                    <button
+                        onClick={thread.loadMore}
+                        disabled={thread.loading}
+                        className="w-full text-sm text-gray-400 hover:text-yellow-400 py-1 transition-colors cursor-pointer"
+                    >
+                      {thread.loading ? "Loading..." : "Load older comments"}
+                    </button>
                 )}
               </div>
             </div>
@@ -8,6 +8,8 @@ import EditPostModal from "./EditSkillPostModal";
 import toast from "react-hot-toast";
 import UserAvatar from "./UserAvatar";
 import ConfirmModal from "./ConfirmModal.jsx";
+import usePagedComments from "../hooks/usePagedComments";
+import { getComments } from "../api/skillSharingAPI";
 
 const SkillSharingCard = ({
                             post,
@@ -25,6 +27,8 @@ const SkillSharingCard = ({
   const [saved, setSaved] = useState(false);
   const [shared, setShared] = useState(false);
   const { modalState, openModal, closeModal } = useConfirmModal();
+  const commentCount = post.commentCount ?? post.comments?.length ?? 0;
+  const thread = usePagedComments(getComments, post.id, token, showComments, commentCount);
 
   const isLikedByUser = post?.likes?.some(
       (like) => like.userId === currentUser?.id
@@ -48,11 +52,13 @@ const SkillSharingCard = ({
 
   // Handle updating a comment through parent component
   const handleCommentUpdated = (postId, commentId, newContent) => {
+    thread.updateComment(commentId, newContent);
     onCommentUpdated(postId, commentId, newContent);
   };
 
   // Handle deleting a comment through parent component
   const handleCommentDeleted = (postId, commentId) => {
+    thread.removeComment(commentId);
     onCommentDeleted(postId, commentId);
   };
 
@@ -226,7 +232,7 @@ const SkillSharingCard = ({
                   aria-label={showComments ? "Hide comments" : "Show comments"}
               >
                 <MessageSquare size={18} />
-                <span>{post.comments?.length || 0}</span>
+                <span>{commentCount}</span>
               </motion.button>
             </div>
 
@@ -282,8 +288,8 @@ const SkillSharingCard = ({
 
                   {/* Comments List */}
                   <div className="space-y-2 max-h-64 overflow-y-auto scrollbar-thin scrollbar-thumb-gray-700 scrollbar-track-transparent pr-2">
-                    {post.comments && post.comments.length > 0 ? (
-                        post.comments.map((comment) => (
+                    {thread.comments.length > 0 ? (
+                        thread.comments.map((comment) => (
                             <Comment
                                 key={comment.id}
                                 comment={comment}
@@ -297,9 +303,20 @@ const SkillSharingCard = ({
                             />
                         ))
                     ) : (
-                        <p className="text-center text-gray-500 py-2">
-                          No comments yet. Be the first to comment!
-                        </p>
+                        !thread.loading && (
+                            <p className="text-center text-gray-500 py-2">
+                              No comments yet. Be the first to comment!
+                            </p>
+                        )
+                    )}
+                    {thread.hasMore && (
+                        <button
+                            onClick={thread.loadMore}
+                            disabled={thread.loading}
+                            className="w-full text-sm text-gray-400 hover:text-yellow-400 py-1 transition-colors cursor-pointer"
+                        >
+                          {thread.loading ? "Loading..." : "Load older comments"}
+                        </button>
                     )}
                   </div>
                 </motion.div>
@@ -0,0 +1,64 @@
+import { useState, useCallback, useEffect } from "react";
+
+// Posts and learning progress entries only embed their latest few comments, the full thread
+// is read page by page (newest first) from the comments endpoint while the section is open.
+// reloadKey (e.g. the parent's commentCount) reloads the first page when it changes
+const usePagedComments = (fetchPage, parentId, token, enabled, reloadKey) => {
+  const [comments, setComments] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loading, setLoading] = useState(false);
+
+  const load = useCallback(
+    async (cursor) => {
+      setLoading(true);
+      try {
+        const response = await fetchPage(parentId, cursor, token);
+        const items = response.data?.items || [];
+        setComments((current) => (cursor ? [...current, ...items] : items));
+        setNextCursor(response.data?.nextCursor || null);
+      } catch (error) {
+        console.error("Error loading comments:", error);
+      } finally {
+        setLoading(false);
+      }
+    },
+    [fetchPage, parentId, token]
+  );
+
+  useEffect(() => {
+    if (enabled) {
+      load(null);
+    }
+  }, [enabled, load, reloadKey]);
+
+  const loadMore = useCallback(() => {
+    if (nextCursor && !loading) {
+      load(nextCursor);
+    }
+  }, [nextCursor, loading, load]);
+
+  const updateComment = useCallback((commentId, content) => {
+    setComments((current) =>
+      current.map((comment) =>
+        comment.id === commentId
+          ? { ...comment, content, updatedAt: new Date() }
+          : comment
+      )
+    );
+  }, []);
+
+  const removeComment = useCallback((commentId) => {
+    setComments((current) => current.filter((comment) => comment.id !== commentId));
+  }, []);
+
+  return {
+    comments,
+    hasMore: nextCursor !== null,
+    loading,
+    loadMore,
+    updateComment,
+    removeComment,
+  };
+};
+
+export default usePagedComments;
@@ -224,7 +224,7 @@ const ProfilePage = () => {
                 if (post.id === postId) {
                     return {
                         ...post,
-                        comments: post.comments.map((comment) => {
+                        comments: (post.comments || []).map((comment) => {
                             if (comment.id === commentId) {
                                 return {
                                     ...comment,
@@ -248,9 +248,10 @@ const ProfilePage = () => {
                 if (post.id === postId) {
                     return {
                         ...post,
-                        comments: post.comments.filter(
+                        comments: (post.comments || []).filter(
                             (comment) => comment.id !== commentId
                         ),
+                        commentCount: Math.max(0, (post.commentCount ?? post.comments?.length ?? 1) - 1),
                     };
                 }
                 return post;